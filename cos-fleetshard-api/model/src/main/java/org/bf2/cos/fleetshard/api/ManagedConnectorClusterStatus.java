@@ -11,4 +11,31 @@ import lombok.ToString;
 @Buildable(builderPackage = "io.fabric8.kubernetes.api.builder")
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class ManagedConnectorClusterStatus {
+    private Long deploymentsResourceVersion;
+    private Long namespacesResourceVersion;
+    private String lastResyncTime;
+
+    public Long getDeploymentsResourceVersion() {
+        return deploymentsResourceVersion;
+    }
+
+    public void setDeploymentsResourceVersion(Long deploymentsResourceVersion) {
+        this.deploymentsResourceVersion = deploymentsResourceVersion;
+    }
+
+    public Long getNamespacesResourceVersion() {
+        return namespacesResourceVersion;
+    }
+
+    public void setNamespacesResourceVersion(Long namespacesResourceVersion) {
+        this.namespacesResourceVersion = namespacesResourceVersion;
+    }
+
+    public String getLastResyncTime() {
+        return lastResyncTime;
+    }
+
+    public void setLastResyncTime(String lastResyncTime) {
+        this.lastResyncTime = lastResyncTime;
+    }
 }
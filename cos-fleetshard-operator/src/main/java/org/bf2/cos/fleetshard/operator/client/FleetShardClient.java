@@ -12,6 +12,7 @@ import org.bf2.cos.fleetshard.api.ManagedConnector;
 import org.bf2.cos.fleetshard.api.ManagedConnectorOperator;
 import org.bf2.cos.fleetshard.api.Operator;
 import org.bf2.cos.fleetshard.operator.FleetShardOperatorConfig;
+import org.bf2.cos.fleetshard.support.OperatorIndex;
 
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.client.KubernetesClient;
@@ -24,6 +25,8 @@ public class FleetShardClient {
     @Inject
     FleetShardOperatorConfig config;
 
+    private volatile OperatorIndex operatorIndex = OperatorIndex.EMPTY;
+
     public String getNamespace() {
         return config.namespace();
     }
@@ -45,6 +48,19 @@ public class FleetShardClient {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Looks up the known operators and provides an index of them, the index is rebuilt only if the operators have
+     * changed since the last lookup.
+     *
+     * @return the operators index.
+     */
+    public OperatorIndex lookupOperatorIndex() {
+        final OperatorIndex answer = operatorIndex.update(lookupOperators());
+        operatorIndex = answer;
+
+        return answer;
+    }
+
     public List<ManagedConnector> lookupManagedConnectors() {
         List<ManagedConnector> answer = kubernetesClient
             .resources(ManagedConnector.class)
@@ -26,6 +26,7 @@ import org.bf2.cos.fleetshard.operator.client.FleetShardClient;
 import org.bf2.cos.fleetshard.operator.operand.OperandController;
 import org.bf2.cos.fleetshard.operator.operand.OperandControllerMetricsWrapper;
 import org.bf2.cos.fleetshard.operator.operand.OperandResourceWatcher;
+import org.bf2.cos.fleetshard.support.OperatorIndex;
 import org.bf2.cos.fleetshard.support.client.EventClient;
 import org.bf2.cos.fleetshard.support.exceptions.WrappedRuntimeException;
 import org.bf2.cos.fleetshard.support.metrics.MetricsRecorder;
@@ -69,7 +70,6 @@ import static org.bf2.cos.fleetshard.api.ManagedConnector.STATE_PROVISIONING;
 import static org.bf2.cos.fleetshard.api.ManagedConnector.STATE_STOPPED;
 import static org.bf2.cos.fleetshard.api.ManagedConnectorConditions.hasCondition;
 import static org.bf2.cos.fleetshard.api.ManagedConnectorConditions.setCondition;
-import static org.bf2.cos.fleetshard.support.OperatorSelectorUtil.available;
 import static org.bf2.cos.fleetshard.support.resources.Resources.LABEL_CLUSTER_ID;
 import static org.bf2.cos.fleetshard.support.resources.Resources.LABEL_CONNECTOR_ID;
 import static org.bf2.cos.fleetshard.support.resources.Resources.LABEL_CONNECTOR_OPERATOR;
@@ -609,10 +609,10 @@ public class ConnectorController implements Reconciler<ManagedConnector>, EventS
         //
         // Search for newly installed ManagedOperators
         //
-        final List<Operator> operators = fleetShard.lookupOperators();
+        final OperatorIndex operators = fleetShard.lookupOperatorIndex();
         final Operator assignedOperator = connector.getStatus().getConnectorStatus().getAssignedOperator();
         final Operator availableOperator = connector.getStatus().getConnectorStatus().getAvailableOperator();
-        final Optional<Operator> selected = available(connector.getSpec().getOperatorSelector(), operators);
+        final Optional<Operator> selected = operators.available(connector.getSpec().getOperatorSelector());
 
         if (selected.isPresent()) {
             Operator selectedInstance = selected.get();
@@ -0,0 +1,186 @@
+package org.bf2.cos.fleetshard.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.bf2.cos.fleetshard.api.Operator;
+import org.bf2.cos.fleetshard.api.OperatorSelector;
+import org.bf2.cos.fleetshard.api.Version;
+import org.bf2.cos.fleetshard.api.VersionRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An immutable index of the known operators, grouped by type with versions parsed upfront and sorted from the highest
+ * to the lowest, to be built once whenever the set of operators changes and then used to resolve operator selectors
+ * with the same semantic as {@link OperatorSelectorUtil}, without parsing versions on each lookup.
+ */
+public final class OperatorIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OperatorIndex.class);
+
+    public static final OperatorIndex EMPTY = new OperatorIndex(Collections.emptyList());
+
+    private final List<Operator> operators;
+    private final Map<String, Entry> byId;
+    private final Map<String, List<Entry>> byType;
+    private final ConcurrentMap<String, VersionRange> ranges;
+
+    private OperatorIndex(List<Operator> operators) {
+        this.operators = operators;
+        this.byId = new HashMap<>();
+        this.byType = new HashMap<>();
+        this.ranges = new ConcurrentHashMap<>();
+
+        for (Operator operator : operators) {
+            Version version = null;
+            try {
+                version = new Version(operator.getVersion());
+            } catch (IllegalArgumentException iae) {
+                LOGGER.info("CR with unsupported version found for operator {}", operator.getId());
+            }
+
+            final Entry entry = new Entry(operator, version);
+
+            byId.putIfAbsent(operator.getId(), entry);
+
+            if (version != null) {
+                byType.computeIfAbsent(operator.getType(), k -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        // sort is stable, so operators with the same version retain their original order
+        final Comparator<Entry> cmp = Comparator.comparing(e -> e.version);
+        byType.values().forEach(entries -> entries.sort(cmp.reversed()));
+    }
+
+    /**
+     * @param  operators the operators.
+     * @return           an index of the given operators.
+     */
+    public static OperatorIndex of(Collection<Operator> operators) {
+        if (operators == null || operators.isEmpty()) {
+            return EMPTY;
+        }
+
+        return new OperatorIndex(List.copyOf(operators));
+    }
+
+    /**
+     * Rebuild the index only if the given operators differ from the indexed ones.
+     *
+     * @param  operators the operators.
+     * @return           this index if the operators have not changed, a new index otherwise.
+     */
+    public OperatorIndex update(Collection<Operator> operators) {
+        if (operators != null && operators.size() == this.operators.size()) {
+            final Iterator<Operator> it = this.operators.iterator();
+            boolean same = true;
+
+            for (Operator operator : operators) {
+                if (!Objects.equals(operator, it.next())) {
+                    same = false;
+                    break;
+                }
+            }
+
+            if (same) {
+                return this;
+            }
+        }
+
+        return of(operators);
+    }
+
+    public List<Operator> getOperators() {
+        return operators;
+    }
+
+    public boolean isEmpty() {
+        return operators.isEmpty();
+    }
+
+    /**
+     * @see OperatorSelectorUtil#assign(OperatorSelector, Collection)
+     */
+    public Optional<Operator> assign(OperatorSelector selector) {
+        if (operators.isEmpty()) {
+            return Optional.empty();
+        }
+
+        if (selector.getId() != null) {
+            final Entry entry = byId.get(selector.getId());
+            if (entry == null) {
+                return Optional.empty();
+            }
+
+            if (!Objects.equals(selector.getType(), entry.operator.getType())) {
+                throw new IllegalArgumentException(
+                    "The given operator id does not match the operator selector type: "
+                        + "id: " + selector.getId()
+                        + ", id_type: " + entry.operator.getType()
+                        + ", selector_type: " + selector.getType());
+            }
+
+            final Version version = entry.version != null ? entry.version : new Version(entry.operator.getVersion());
+
+            if (!range(selector).includes(version)) {
+                throw new IllegalArgumentException(
+                    "The given operator id is outside the operator selector range: "
+                        + "id: " + selector.getId()
+                        + ", id_range: " + entry.operator.getVersion()
+                        + ", selector_range: " + selector.getType());
+            }
+
+            return Optional.of(entry.operator);
+        }
+
+        return available(selector);
+    }
+
+    /**
+     * @see OperatorSelectorUtil#available(OperatorSelector, Collection)
+     */
+    public Optional<Operator> available(OperatorSelector selector) {
+        if (operators.isEmpty()) {
+            return Optional.empty();
+        }
+
+        final VersionRange range = range(selector);
+        final List<Entry> entries = byType.get(selector.getType());
+
+        if (entries != null) {
+            for (Entry entry : entries) {
+                if (range.includes(entry.version)) {
+                    return Optional.of(entry.operator);
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private VersionRange range(OperatorSelector selector) {
+        // selectors are shared by many connectors, so the parsed ranges are memoized for the lifetime of the index
+        return ranges.computeIfAbsent(selector.getVersion(), VersionRange::new);
+    }
+
+    private static final class Entry {
+        final Operator operator;
+        final Version version;
+
+        Entry(Operator operator, Version version) {
+            this.operator = operator;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.bf2.cos.fleetshard.support;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * An {@link Executor} decorator that runs tasks sharing the same key one after the other, in submission order, while
+ * tasks with different keys are free to run concurrently on the delegate executor.
+ */
+public class OrderedExecutor {
+    private final Executor delegate;
+    private final Map<String, CompletableFuture<Void>> tails;
+
+    public OrderedExecutor(Executor delegate) {
+        this.delegate = delegate;
+        this.tails = new HashMap<>();
+    }
+
+    /**
+     * Submit a task to be run once all the tasks previously submitted with the same key have completed, regardless of
+     * their outcome.
+     *
+     * @param  key  the ordering key.
+     * @param  task the task.
+     * @return      a future that completes when the task has been executed.
+     */
+    public CompletableFuture<Void> submit(String key, Runnable task) {
+        synchronized (tails) {
+            final CompletableFuture<Void> previous = tails.get(key);
+            final CompletableFuture<Void> next = previous == null
+                ? CompletableFuture.runAsync(task, delegate)
+                : previous.handle((r, e) -> null).thenRunAsync(task, delegate);
+
+            tails.put(key, next);
+
+            next.whenComplete((r, e) -> {
+                synchronized (tails) {
+                    tails.remove(key, next);
+                }
+            });
+
+            return next;
+        }
+    }
+
+    /**
+     * @return the number of keys with pending tasks.
+     */
+    public int size() {
+        synchronized (tails) {
+            return tails.size();
+        }
+    }
+}
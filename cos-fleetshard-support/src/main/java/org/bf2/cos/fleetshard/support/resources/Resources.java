@@ -36,12 +36,15 @@ public final class Resources {
     public static final String LABEL_OPERATOR_TYPE = "cos.bf2.org/operator.type";
     public static final String LABEL_OPERATOR_VERSION = "cos.bf2.org/operator.version";
     public static final String LABEL_UOW = "cos.bf2.org/uow";
+    public static final String LABEL_SHARD = "cos.bf2.org/shard";
 
     public static final String ANNOTATION_UPDATED_TIMESTAMP = "cos.bf2.org/update.timestamp";
     public static final String ANNOTATION_NAMESPACE_NAME = "cos.bf2.org/namespace.name";
     public static final String ANNOTATION_NAMESPACE_EXPIRATION = "cos.bf2.org/namespace.expiration";
     public static final String ANNOTATION_NAMESPACE_QUOTA = "cos.bf2.org/namespace.quota";
     public static final String ANNOTATION_NAMESPACE_RESOURCE_VERSION = "cos.bf2.org/namespace.resource.version";
+    public static final String ANNOTATION_DEPLOYMENT_CHECKSUM = "cos.bf2.org/deployment.checksum";
+    public static final String ANNOTATION_NAMESPACE_CONNECTORS = "cos.bf2.org/namespace.connectors";
     public static final String LABEL_NAMESPACE_STATE = "cos.bf2.org/namespace.state";
     public static final String LABEL_NAMESPACE_STATE_FORCED = "cos.bf2.org/namespace.state.forced";
 
@@ -67,6 +70,7 @@ public final class Resources {
     public static final String COMPONENT_OPERATOR = "cos-operator";
     public static final String COMPONENT_CONNECTOR = "cos-connector";
     public static final String COMPONENT_NAMESPACE = "cos-namespace";
+    public static final String COMPONENT_SYNC = "cos-sync";
 
     private Resources() {
     }
@@ -1,6 +1,7 @@
 package org.bf2.cos.fleetshard.support.watch;
 
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
 
@@ -26,4 +27,29 @@ public final class Informers {
             }
         };
     }
+
+    public static <T> ResourceEventHandler<T> filter(Predicate<T> filter, ResourceEventHandler<T> delegate) {
+        return new ResourceEventHandler<>() {
+            @Override
+            public void onAdd(T resource) {
+                if (filter.test(resource)) {
+                    delegate.onAdd(resource);
+                }
+            }
+
+            @Override
+            public void onUpdate(T oldResource, T newResource) {
+                if (filter.test(newResource)) {
+                    delegate.onUpdate(oldResource, newResource);
+                }
+            }
+
+            @Override
+            public void onDelete(T resource, boolean deletedFinalStateUnknown) {
+                if (filter.test(resource)) {
+                    delegate.onDelete(resource, deletedFinalStateUnknown);
+                }
+            }
+        };
+    }
 }
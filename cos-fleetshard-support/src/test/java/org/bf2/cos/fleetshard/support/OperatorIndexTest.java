@@ -0,0 +1,101 @@
+package org.bf2.cos.fleetshard.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.bf2.cos.fleetshard.api.Operator;
+import org.bf2.cos.fleetshard.api.OperatorSelector;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OperatorIndexTest {
+    public static final List<Operator> OPERATORS = List.of(
+        new Operator("1", "camel", "1.0.0"),
+        new Operator("2", "camel", "1.1.0"),
+        new Operator("3", "camel", "1.9.0"),
+        new Operator("4", "camel", "2.0.0"),
+        new Operator("5", "strimzi", "1.9.0"),
+        new Operator("6", "strimzi", "2.0.0"),
+        new Operator("7", "strimzi", "unsupported"));
+
+    @Test
+    void assignOperator() {
+        OperatorIndex index = OperatorIndex.of(OPERATORS);
+
+        Assertions.assertThat(index.assign(new OperatorSelector("2", "camel", "[1.0.0,2.0.0)")))
+            .isPresent()
+            .get()
+            .hasFieldOrPropertyWithValue("type", "camel")
+            .hasFieldOrPropertyWithValue("version", "1.1.0");
+
+        Assertions.assertThat(index.assign(new OperatorSelector("camel", "[1.0.0,2.0.0)")))
+            .isPresent()
+            .get()
+            .hasFieldOrPropertyWithValue("type", "camel")
+            .hasFieldOrPropertyWithValue("version", "1.9.0");
+
+        Assertions.assertThat(index.assign(new OperatorSelector("8", "camel", "[1.0.0,2.0.0)")))
+            .isNotPresent();
+
+        assertThatThrownBy(() -> index.assign(new OperatorSelector("5", "camel", "[1.0.0,2.0.0)")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("The given operator id does not match the operator selector type");
+
+        assertThatThrownBy(() -> index.assign(new OperatorSelector("4", "camel", "[1.0.0,2.0.0)")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("The given operator id is outside the operator selector range");
+    }
+
+    @Test
+    void availableOperator() {
+        OperatorIndex index = OperatorIndex.of(OPERATORS);
+
+        Assertions.assertThat(index.available(new OperatorSelector("strimzi", "[1.0.0,2.0.0)")))
+            .isPresent()
+            .get()
+            .hasFieldOrPropertyWithValue("type", "strimzi")
+            .hasFieldOrPropertyWithValue("version", "1.9.0");
+
+        Assertions.assertThat(index.available(new OperatorSelector("camel", "[1.0.0,2.0.0)")))
+            .isPresent()
+            .get()
+            .hasFieldOrPropertyWithValue("type", "camel")
+            .hasFieldOrPropertyWithValue("version", "1.9.0");
+
+        Assertions.assertThat(index.available(new OperatorSelector("camel", "(1.0.0,1.8.9)")))
+            .isPresent()
+            .get()
+            .hasFieldOrPropertyWithValue("type", "camel")
+            .hasFieldOrPropertyWithValue("version", "1.1.0");
+
+        Assertions.assertThat(index.available(new OperatorSelector("camel", "[3.0.0,4.0.0)")))
+            .isNotPresent();
+        Assertions.assertThat(index.available(new OperatorSelector("debezium", "[1.0.0,2.0.0)")))
+            .isNotPresent();
+    }
+
+    @Test
+    void indexIsRebuiltOnlyOnChanges() {
+        OperatorIndex index = OperatorIndex.of(OPERATORS);
+
+        Assertions.assertThat(index.update(new ArrayList<>(OPERATORS)))
+            .isSameAs(index);
+
+        List<Operator> operators = new ArrayList<>(OPERATORS);
+        operators.add(new Operator("8", "camel", "1.9.1"));
+
+        OperatorIndex updated = index.update(operators);
+
+        Assertions.assertThat(updated)
+            .isNotSameAs(index);
+        Assertions.assertThat(updated.available(new OperatorSelector("camel", "[1.0.0,2.0.0)")))
+            .isPresent()
+            .get()
+            .hasFieldOrPropertyWithValue("id", "8");
+
+        Assertions.assertThat(OperatorIndex.EMPTY.update(List.of()))
+            .isSameAs(OperatorIndex.EMPTY);
+    }
+}
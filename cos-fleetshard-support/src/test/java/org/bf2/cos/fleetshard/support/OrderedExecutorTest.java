@@ -0,0 +1,119 @@
+package org.bf2.cos.fleetshard.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OrderedExecutorTest {
+    private ExecutorService delegate;
+
+    @BeforeEach
+    void setUp() {
+        delegate = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        delegate.shutdownNow();
+    }
+
+    @Test
+    void tasksWithTheSameKeyRunInOrder() throws Exception {
+        OrderedExecutor executor = new OrderedExecutor(delegate);
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            final int value = i;
+
+            futures.add(executor.submit("d1", () -> {
+                if (value % 10 == 0) {
+                    // a failing task does not prevent the following ones from running
+                    throw new IllegalStateException("failure " + value);
+                }
+
+                sleep(1);
+                executed.add(value);
+            }));
+        }
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+            .handle((r, e) -> null)
+            .get(10, TimeUnit.SECONDS);
+
+        assertThat(executed).hasSize(45).isSorted();
+        assertThat(futures.get(0)).isCompletedExceptionally();
+        assertThat(executor.size()).isZero();
+    }
+
+    @Test
+    void tasksWithDifferentKeysRunConcurrently() throws Exception {
+        OrderedExecutor executor = new OrderedExecutor(delegate);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Runnable task = () -> {
+            started.countDown();
+
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        CompletableFuture<Void> f1 = executor.submit("d1", task);
+        CompletableFuture<Void> f2 = executor.submit("d2", task);
+
+        // both tasks are running at the same time, otherwise the latch would never reach zero
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.size()).isEqualTo(2);
+
+        release.countDown();
+
+        CompletableFuture.allOf(f1, f2).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void tasksWithTheSameKeyDoNotOverlap() throws Exception {
+        OrderedExecutor executor = new OrderedExecutor(delegate);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+
+        CompletableFuture<Void> f1 = executor.submit("d1", () -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<Void> f2 = executor.submit("d1", secondStarted::countDown);
+
+        assertThat(secondStarted.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(executor.size()).isEqualTo(1);
+
+        release.countDown();
+
+        CompletableFuture.allOf(f1, f2).get(10, TimeUnit.SECONDS);
+        assertThat(secondStarted.getCount()).isZero();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,19 +1,35 @@
 package org.bf2.cos.fleetshard.sync;
 
+import java.util.concurrent.TimeUnit;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import org.bf2.cos.fleetshard.support.Service;
+import org.bf2.cos.fleetshard.support.function.ThrowingRunnable;
 import org.bf2.cos.fleetshard.support.resources.Resources;
 import org.bf2.cos.fleetshard.sync.client.FleetShardClient;
 import org.bf2.cos.fleetshard.sync.client.FleetShardObservabilityClient;
 import org.bf2.cos.fleetshard.sync.housekeeping.Housekeeper;
 import org.bf2.cos.fleetshard.sync.resources.ConnectorClusterStatusSync;
+import org.bf2.cos.fleetshard.sync.resources.ConnectorDeploymentWatch;
+import org.bf2.cos.fleetshard.sync.resources.ConnectorNamespaceWatch;
 import org.bf2.cos.fleetshard.sync.resources.ConnectorStatusSync;
 import org.bf2.cos.fleetshard.sync.resources.ResourcePoll;
+import org.bf2.cos.fleetshard.sync.sharding.ShardManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @ApplicationScoped
 public class FleetShardSync implements Service {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FleetShardSync.class);
+
+    public static final String METRICS_STARTUP_PHASE = "startup.phase";
+    public static final String TAG_PHASE = "phase";
+
     @Inject
     FleetShardClient fleetShardClient;
     @Inject
@@ -21,41 +37,90 @@ public class FleetShardSync implements Service {
     @Inject
     ResourcePoll resourceSync;
     @Inject
+    ConnectorNamespaceWatch namespacesWatch;
+    @Inject
+    ConnectorDeploymentWatch connectorsWatch;
+    @Inject
     ConnectorStatusSync connectorStatusSync;
     @Inject
     ConnectorClusterStatusSync clusterStatusSync;
     @Inject
     Housekeeper housekeeping;
+    @Inject
+    ShardManager shards;
+    @Inject
+    FleetShardSyncConfig config;
+    @Inject
+    MeterRegistry registry;
+
+    private volatile boolean started;
 
     @Override
     public void start() throws Exception {
-        fleetShardClient.getOrCreateManagedConnectorCluster();
-        fleetShardObservabilityClient.setupObservability();
-        fleetShardClient.start();
+        phase("cluster", fleetShardClient::getOrCreateManagedConnectorCluster);
+        phase("observability", fleetShardObservabilityClient::setupObservability);
 
-        startResourcesSync();
+        // when the shards owned by this replica change, the informers are filtered by the new shards and a full
+        // resync is performed to provision the namespaces and deployments that have been taken over
+        shards.onRebalance(() -> {
+            fleetShardClient.reshard();
+            resourceSync.resync();
+        });
+        phase("sharding", shards::start);
 
-        housekeeping.start();
+        // the jobs are started only once the informers are in sync, see FleetShardClient#start
+        phase("informers", fleetShardClient::start);
+        phase("resources", this::startResourcesSync);
+        phase("housekeeping", housekeeping::start);
+
+        started = true;
+    }
+
+    /**
+     * @return true if the synchronizer has been started and its informers are in sync.
+     */
+    public boolean isReady() {
+        return started && fleetShardClient.isSynced();
     }
 
     @Override
     public void stop() throws Exception {
+        started = false;
+
         stopResourcesSync();
 
         Resources.closeQuietly(housekeeping);
+        Resources.closeQuietly(shards);
         Resources.closeQuietly(fleetShardClient);
     }
 
     public void startResourcesSync() throws Exception {
         resourceSync.start();
+        namespacesWatch.start();
+        connectorsWatch.start();
         connectorStatusSync.start();
         clusterStatusSync.start();
     }
 
     public void stopResourcesSync() throws Exception {
         Resources.closeQuietly(resourceSync);
+        Resources.closeQuietly(namespacesWatch);
+        Resources.closeQuietly(connectorsWatch);
         Resources.closeQuietly(connectorStatusSync);
         Resources.closeQuietly(clusterStatusSync);
     }
 
+    private void phase(String name, ThrowingRunnable<Exception> action) throws Exception {
+        final Timer.Sample sample = Timer.start(registry);
+
+        action.run();
+
+        final long elapsed = sample.stop(
+            Timer.builder(config.metrics().baseName() + "." + METRICS_STARTUP_PHASE)
+                .tag(TAG_PHASE, name)
+                .register(registry));
+
+        LOGGER.info("Startup phase {} completed in {}ms", name, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
 }
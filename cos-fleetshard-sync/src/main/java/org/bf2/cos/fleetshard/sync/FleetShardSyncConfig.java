@@ -80,6 +80,95 @@ public interface FleetShardSyncConfig {
 
     Observability observability();
 
+    /**
+     * Configuration options for the scheduler of the periodic jobs.
+     *
+     * @return {@link Scheduler}
+     */
+    Scheduler scheduler();
+
+    /**
+     * Configuration options for the sharded mode, where the connector namespaces are split among several replicas of
+     * the synchronizer.
+     *
+     * @return {@link Sharding}
+     */
+    Sharding sharding();
+
+    interface Scheduler {
+        /**
+         * The number of threads used to run the periodic jobs.
+         *
+         * @return the number of threads.
+         */
+        @WithDefault("4")
+        int threads();
+
+        /**
+         * Determine how the executions of a job are spaced: fixed-rate aligns executions to the interval and skips the
+         * executions missed while a slow execution was running, fixed-delay counts the interval from the end of the
+         * previous execution.
+         *
+         * @return the scheduling mode.
+         */
+        @WithDefault("fixed-rate")
+        FleetShardSyncScheduler.Mode mode();
+
+        /**
+         * The fraction of the interval used to randomly delay each execution of a job.
+         *
+         * @return the jitter.
+         */
+        @WithDefault("0.05")
+        double jitter();
+    }
+
+    interface Sharding {
+        /**
+         * Determine if the connector namespaces are split among the replicas of the synchronizer, each replica only
+         * provisioning and reporting the namespaces assigned to it. When the sharded mode is enabled on an existing
+         * cluster, the connectors and secrets provisioned before are labelled with their shard on startup.
+         *
+         * @return true if the sharded mode is enabled.
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * The id of this replica within the group, by default the pod name.
+         *
+         * @return the member id.
+         */
+        Optional<String> memberId();
+
+        /**
+         * The number of buckets the connector namespaces are hashed to, which is the unit of assignment to the
+         * replicas. It must be the same for all the replicas and should be well above the number of replicas.
+         *
+         * @return the number of buckets.
+         */
+        @WithDefault("64")
+        int buckets();
+
+        /**
+         * How long a replica is considered part of the group after it has last renewed its lease.
+         *
+         * @return the lease duration.
+         */
+        @WithDefault("15s")
+        @WithConverter(DurationConverter.class)
+        Duration leaseDuration();
+
+        /**
+         * How often a replica renews its lease and refreshes the membership of the group.
+         *
+         * @return the renew interval.
+         */
+        @WithDefault("5s")
+        @WithConverter(DurationConverter.class)
+        Duration renewInterval();
+    }
+
     interface Cluster {
         /**
          * The ID assigned to the operator.
@@ -130,6 +219,13 @@ public interface FleetShardSyncConfig {
         @WithConverter(DurationConverter.class)
         Duration pollInterval();
 
+        /**
+         * Configuration options for adapting the poll interval to the activity on the Control Plane.
+         *
+         * @return {@link AdaptivePoll}
+         */
+        AdaptivePoll adaptivePoll();
+
         /**
          * Determine how often the synchronizer should re-sync resources with the Control Plane.
          *
@@ -148,6 +244,44 @@ public interface FleetShardSyncConfig {
         @WithConverter(DurationConverter.class)
         Duration updateInterval();
 
+        /**
+         * Determine the maximum time after which an unchanged connector status is reported again to the Control Plane,
+         * as statuses are otherwise reported only when they change. Setting it to 0 reports statuses on every update.
+         *
+         * @return the maximum staleness.
+         */
+        @WithDefault("5m")
+        @WithConverter(DurationConverter.class)
+        Duration statusMaxStaleness();
+
+        /**
+         * Determine how long the synchronizer should wait after a connector changes before reporting its status, so
+         * that a burst of changes results in a single status update.
+         *
+         * @return the debounce delay.
+         */
+        @WithDefault("1s")
+        @WithConverter(DurationConverter.class)
+        Duration statusDebounce();
+
+        /**
+         * Configuration options for batching the connector statuses reported to the Control Plane.
+         *
+         * @return {@link StatusBatch}
+         */
+        StatusBatch statusBatch();
+
+        /**
+         * Determine the maximum time after which an unchanged cluster status is reported again to the Control Plane,
+         * as the cluster status is otherwise reported only when it changes. Setting it to 0 reports the cluster
+         * status on every update.
+         *
+         * @return the heartbeat interval.
+         */
+        @WithDefault("5m")
+        @WithConverter(DurationConverter.class)
+        Duration clusterStatusHeartbeat();
+
         /**
          * Determine how often the synchronizer should perform house keeping tasks.
          *
@@ -156,6 +290,231 @@ public interface FleetShardSyncConfig {
         @WithDefault("30s")
         @WithConverter(DurationConverter.class)
         Duration housekeeperInterval();
+
+        /**
+         * How long to wait for the informers to fill their caches on startup, the periodic jobs are started only once
+         * all the informers are in sync.
+         *
+         * @return the informers sync timeout.
+         */
+        @WithDefault("2m")
+        @WithConverter(DurationConverter.class)
+        Duration informerSyncTimeout();
+
+        /**
+         * Determine how many pages the synchronizer should fetch ahead from the Control Plane while the current page
+         * is being provisioned. Setting it to 0 fetches pages sequentially.
+         *
+         * @return the number of pages to prefetch.
+         */
+        @WithDefault("1")
+        int pagePrefetch();
+
+        /**
+         * Determine how many items the synchronizer should request for each page when listing resources on the Control
+         * Plane. If not set, the Control Plane default applies.
+         *
+         * @return the page size.
+         */
+        Optional<Integer> pageSize();
+
+        /**
+         * Configuration options for tuning the page size out of the observed Control Plane latency.
+         *
+         * @return {@link PageSizeTuning}
+         */
+        PageSizeTuning pageSizeTuning();
+
+        /**
+         * Determine if connector deployment pages should be parsed as a stream, decoding one deployment at a time and
+         * keeping the connector specs as raw JSON text, rather than materializing the whole page as a JSON tree. The
+         * deployments of a page are still buffered so that they are handed to the provisioner ordered by revision,
+         * hence at most one decoded page per fetched or prefetched page is held in memory.
+         *
+         * @return true if pages should be decoded as a stream.
+         */
+        @WithDefault("false")
+        boolean streamingDecode();
+
+        /**
+         * Determine how many deployments the synchronizer should provision concurrently, which also bounds the number
+         * of in-flight provisioning requests to the API server. Revisions of the same deployment are always provisioned
+         * one at a time, whether they come from the watch stream or from polling, and a revision older than the last
+         * applied one is skipped.
+         *
+         * @return the provisioning concurrency.
+         */
+        @WithDefault("1")
+        int provisionConcurrency();
+
+        /**
+         * Configuration options for watching resources on the Control Plane.
+         *
+         * @return {@link Watch}
+         */
+        Watch watch();
+    }
+
+    interface StatusBatch {
+        /**
+         * Determine how many pending connector statuses trigger a flush to the Control Plane.
+         *
+         * @return the batch size.
+         */
+        @WithDefault("50")
+        int size();
+
+        /**
+         * Determine how long a connector status can be pending before pending statuses are flushed to the Control
+         * Plane. Pending statuses are also flushed at the end of each status sync.
+         *
+         * @return the maximum delay.
+         */
+        @WithDefault("1s")
+        @WithConverter(DurationConverter.class)
+        Duration maxDelay();
+
+        /**
+         * Determine how many status requests can be in flight at the same time while flushing. The Control Plane has
+         * no bulk status endpoint, hence each status is sent with its own request. The requests are sent through the
+         * asynchronous Control Plane client, hence the effective concurrency is the lower of this value and
+         * cos.manager.async.max-concurrency.
+         *
+         * @return the flush concurrency.
+         */
+        @WithDefault("16")
+        int concurrency();
+    }
+
+    interface PageSizeTuning {
+        /**
+         * Determine if the page size should be tuned so that retrieving a page takes about the target latency. When
+         * enabled, the configured page size is used as initial value.
+         *
+         * @return true if page size tuning is enabled.
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * The lower bound of the page size.
+         *
+         * @return the min page size.
+         */
+        @WithDefault("10")
+        int minSize();
+
+        /**
+         * The upper bound of the page size.
+         *
+         * @return the max page size.
+         */
+        @WithDefault("500")
+        int maxSize();
+
+        /**
+         * The target latency for retrieving a page, expressed as a fraction of the Control Plane read timeout.
+         *
+         * @return the target latency ratio.
+         */
+        @WithDefault("0.25")
+        double targetLatencyRatio();
+
+        /**
+         * The target size in bytes of a decoded page, zero to tune on latency only. The size of a page is only known
+         * when deployments are decoded as a stream.
+         *
+         * @return the target page size in bytes.
+         */
+        @WithDefault("1048576")
+        long targetBytes();
+    }
+
+    interface AdaptivePoll {
+        /**
+         * Determine if the poll interval should adapt to the activity on the Control Plane. When enabled, the
+         * interval shrinks towards the min interval while polls return changes and stretches towards the max interval
+         * after consecutive empty polls.
+         *
+         * @return true if the adaptive poll is enabled.
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * The lower bound of the poll interval.
+         *
+         * @return the min interval.
+         */
+        @WithDefault("5s")
+        @WithConverter(DurationConverter.class)
+        Duration minInterval();
+
+        /**
+         * The upper bound of the poll interval.
+         *
+         * @return the max interval.
+         */
+        @WithDefault("2m")
+        @WithConverter(DurationConverter.class)
+        Duration maxInterval();
+
+        /**
+         * The fraction of the poll interval used to randomly spread polls, so that many clusters do not poll the
+         * Control Plane in lockstep.
+         *
+         * @return the jitter.
+         */
+        @WithDefault("0.1")
+        double jitter();
+    }
+
+    interface Watch {
+        /**
+         * Determine if the synchronizer should watch the Control Plane for changes to resources. When enabled, changes
+         * are pushed to the synchronizer as soon as they happen and polling is only used as a fallback when the watch
+         * stream is not connected.
+         *
+         * @return true if watching resources is enabled.
+         */
+        @WithDefault("false")
+        boolean enabled();
+
+        /**
+         * Determine if the synchronizer should also watch the connector namespaces, which requires a Control Plane
+         * that supports the watch parameter on the namespaces endpoint. It has no effect unless watching is enabled.
+         *
+         * @return true if watching namespaces is enabled.
+         */
+        @WithDefault("false")
+        boolean namespaces();
+
+        /**
+         * The read timeout for watch streams, after which the stream is re-established.
+         *
+         * @return the timeout.
+         */
+        @WithDefault("5m")
+        @WithConverter(DurationConverter.class)
+        Duration readTimeout();
+
+        /**
+         * Determine how long the synchronizer should wait before re-establishing a watch stream.
+         *
+         * @return the reconnect delay.
+         */
+        @WithDefault("5s")
+        @WithConverter(DurationConverter.class)
+        Duration reconnectDelay();
+
+        /**
+         * Determine the upper bound of the exponential backoff applied when a watch stream keeps failing.
+         *
+         * @return the max reconnect delay.
+         */
+        @WithDefault("2m")
+        @WithConverter(DurationConverter.class)
+        Duration maxReconnectDelay();
     }
 
     interface Addon {
@@ -228,6 +587,33 @@ public interface FleetShardSyncConfig {
          */
         @WithDefault("cos.fleetshard.sync")
         String baseName();
+
+        /**
+         * Configuration options for the connector state metrics.
+         *
+         * @return {@link ConnectorState}
+         */
+        ConnectorState connectorState();
+    }
+
+    interface ConnectorState {
+        /**
+         * Determine if the connector state counters should be tagged with the resource version of the connector. Only
+         * the counters of the latest resource version of a connector are retained.
+         *
+         * @return true if the counters should be tagged with the resource version.
+         */
+        @WithDefault("true")
+        boolean resourceVersionTag();
+
+        /**
+         * The maximum number of connectors for which state metrics are exposed, connectors exceeding this limit are
+         * not measured.
+         *
+         * @return the maximum number of connectors.
+         */
+        @WithDefault("5000")
+        int maxConnectors();
     }
 
     interface Manager {
@@ -270,6 +656,14 @@ public interface FleetShardSyncConfig {
         @WithConverter(DurationConverter.class)
         Duration ssoTimeout();
 
+        /**
+         * Determine after which fraction of its lifetime the access token should be refreshed in background.
+         *
+         * @return the refresh ratio.
+         */
+        @WithDefault("0.8")
+        double ssoTokenRefreshRatio();
+
         /**
          * The connect timeout;
          *
@@ -287,6 +681,119 @@ public interface FleetShardSyncConfig {
         @WithDefault("10s")
         @WithConverter(DurationConverter.class)
         Duration readTimeout();
+
+        /**
+         * Determine if gzip compressed responses should be requested to the Control Plane.
+         *
+         * @return true if responses should be compressed.
+         */
+        @WithDefault("true")
+        boolean gzip();
+
+        /**
+         * Configuration options for the asynchronous Control Plane client.
+         *
+         * @return {@link Async}
+         */
+        Async async();
+
+        /**
+         * Configuration options for the circuit breaker guarding the requests to the Control Plane.
+         *
+         * @return {@link CircuitBreaker}
+         */
+        CircuitBreaker circuitBreaker();
+
+        /**
+         * Configuration options for the budget bounding the retries against the Control Plane.
+         *
+         * @return {@link RetryBudget}
+         */
+        RetryBudget retryBudget();
+    }
+
+    interface CircuitBreaker {
+        /**
+         * Determine if requests to the Control Plane should be guarded by a circuit breaker.
+         *
+         * @return true if the circuit breaker is enabled.
+         */
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * Determine how many consecutive failures open the circuit.
+         *
+         * @return the failure threshold.
+         */
+        @WithDefault("5")
+        int failureThreshold();
+
+        /**
+         * Determine how long the circuit stays open before a probe request is let through.
+         *
+         * @return the open delay.
+         */
+        @WithDefault("30s")
+        @WithConverter(DurationConverter.class)
+        Duration openDelay();
+    }
+
+    interface RetryBudget {
+        /**
+         * Determine the fraction of a retry each request to the Control Plane adds to the budget.
+         *
+         * @return the ratio.
+         */
+        @WithDefault("0.2")
+        double ratio();
+
+        /**
+         * Determine the maximum number of retries the budget can accumulate.
+         *
+         * @return the max number of tokens.
+         */
+        @WithDefault("10")
+        int maxTokens();
+
+        /**
+         * Determine how often a retry is added to the budget regardless of the requests performed.
+         *
+         * @return the refill interval.
+         */
+        @WithDefault("10s")
+        @WithConverter(DurationConverter.class)
+        Duration refillInterval();
+    }
+
+    interface Async {
+        /**
+         * Determine how many asynchronous requests to the Control Plane can be in flight at the same time, further
+         * requests are queued until one completes. The limit is shared by all the asynchronous requests, including the
+         * status flushes bounded by cos.resources.status-batch.concurrency.
+         *
+         * @return the max concurrency.
+         */
+        @WithDefault("16")
+        int maxConcurrency();
+
+        /**
+         * The timeout for asynchronous connector deployment status updates, including the time spent queued.
+         *
+         * @return the timeout.
+         */
+        @WithDefault("30s")
+        @WithConverter(DurationConverter.class)
+        Duration connectorStatusTimeout();
+
+        /**
+         * The timeout for asynchronous connector namespace status updates, including the time spent queued.
+         *
+         * @return the timeout.
+         */
+        @WithDefault("30s")
+        @WithConverter(DurationConverter.class)
+        Duration namespaceStatusTimeout();
     }
 
     interface Observability {
@@ -0,0 +1,27 @@
+package org.bf2.cos.fleetshard.sync;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.eclipse.microprofile.health.HealthCheck;
+import org.eclipse.microprofile.health.HealthCheckResponse;
+import org.eclipse.microprofile.health.Readiness;
+
+/**
+ * Reports the synchronizer as ready only once it has been started and its informers have filled their caches.
+ */
+@Readiness
+@ApplicationScoped
+public class FleetShardSyncReadinessCheck implements HealthCheck {
+    public static final String NAME = "cos-fleetshard-sync";
+
+    @Inject
+    FleetShardSync sync;
+
+    @Override
+    public HealthCheckResponse call() {
+        return HealthCheckResponse.named(NAME)
+            .status(sync.isReady())
+            .build();
+    }
+}
@@ -1,60 +1,234 @@
 package org.bf2.cos.fleetshard.sync;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
-import org.quartz.Job;
-import org.quartz.JobBuilder;
-import org.quartz.JobDetail;
-import org.quartz.JobKey;
-import org.quartz.SchedulerException;
-import org.quartz.SimpleScheduleBuilder;
-import org.quartz.Trigger;
-import org.quartz.TriggerBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * A lightweight in-process scheduler for the periodic jobs of the synchronizer.
+ * </p>
+ * A job is never executed concurrently with itself: the next execution is scheduled only once the current one has
+ * completed. With {@link Mode#FIXED_RATE} executions are aligned to the interval and the slots missed by a slow
+ * execution are skipped rather than piled up, with {@link Mode#FIXED_DELAY} the interval is counted from the end of the
+ * previous execution. In both cases, a random jitter can be added to each execution.
+ */
 @ApplicationScoped
 public class FleetShardSyncScheduler {
     private static final Logger LOGGER = LoggerFactory.getLogger(FleetShardSyncScheduler.class);
 
+    public static final String METRICS_JOB_DURATION = "scheduler.job.duration";
+    public static final String METRICS_JOB_LATENESS = "scheduler.job.lateness";
+    public static final String METRICS_JOB_SKIPPED = "scheduler.job.skipped";
+    public static final String TAG_JOB = "job";
+
+    public enum Mode {
+        FIXED_RATE,
+        FIXED_DELAY
+    }
+
+    @Inject
+    FleetShardSyncConfig config;
     @Inject
-    org.quartz.Scheduler quartz;
+    MeterRegistry registry;
+
+    private final Map<String, ScheduledJob> jobs = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        final AtomicInteger counter = new AtomicInteger();
+
+        final ScheduledThreadPoolExecutor answer = new ScheduledThreadPoolExecutor(
+            config.scheduler().threads(),
+            r -> {
+                Thread thread = new Thread(r, "cos-scheduler-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+        answer.setRemoveOnCancelPolicy(true);
+        answer.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+
+        this.executor = answer;
+    }
+
+    @PreDestroy
+    void destroy() {
+        jobs.values().forEach(ScheduledJob::cancel);
+        jobs.clear();
+
+        executor.shutdownNow();
+    }
+
+    /**
+     * Schedule a job using the configured scheduling mode.
+     *
+     * @param id       the id of the job.
+     * @param task     the task to execute.
+     * @param interval the interval between executions, zero to not schedule the job.
+     */
+    public void schedule(String id, Runnable task, Duration interval) {
+        schedule(id, task, interval, config.scheduler().mode());
+    }
 
-    public void schedule(String id, Class<? extends Job> jobType, Duration interval) throws SchedulerException {
+    /**
+     * Schedule a job.
+     *
+     * @param id       the id of the job.
+     * @param task     the task to execute.
+     * @param interval the interval between executions, zero to not schedule the job.
+     * @param mode     the scheduling mode.
+     */
+    public void schedule(String id, Runnable task, Duration interval, Mode mode) {
         if (interval.isZero()) {
-            LOGGER.info("Skipping scheduling job of type {} with id {} as the duration is zero", id, jobType);
+            LOGGER.info("Skipping scheduling job with id {} as the duration is zero", id);
             return;
         }
 
-        final JobDetail job = JobBuilder.newJob(jobType)
-            .withIdentity(id + ".job", id)
-            .build();
+        final ScheduledJob job = new ScheduledJob(id, task, interval, mode);
 
-        final Trigger trigger = TriggerBuilder.newTrigger()
-            .withIdentity(id + ".trigger", id)
-            .startNow()
-            .withSchedule(SimpleScheduleBuilder.simpleSchedule()
-                .withIntervalInMilliseconds(interval.toMillis())
-                .repeatForever())
-            .build();
+        if (jobs.putIfAbsent(id, job) != null) {
+            throw new IllegalStateException("A job with id " + id + " is already scheduled");
+        }
 
-        quartz.scheduleJob(
-            job,
-            trigger);
+        job.schedule(System.nanoTime());
     }
 
-    public void shutdown(String id) throws SchedulerException {
-        quartz.deleteJob(JobKey.jobKey(id + ".job", id));
+    public void shutdown(String id) {
+        final ScheduledJob job = jobs.remove(id);
+        if (job != null) {
+            job.cancel();
+        }
     }
 
     public void shutdownQuietly(String id) {
         try {
             shutdown(id);
-        } catch (SchedulerException e) {
+        } catch (Exception e) {
             LOGGER.debug("Error deleting job {}", id, e);
         }
     }
+
+    private final class ScheduledJob implements Runnable {
+        private final String id;
+        private final Runnable task;
+        private final long interval;
+        private final Mode mode;
+        private final Timer duration;
+        private final Timer lateness;
+        private final Counter skipped;
+
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> future;
+        private long slot;
+        private long planned;
+
+        ScheduledJob(String id, Runnable task, Duration interval, Mode mode) {
+            this.id = id;
+            this.task = task;
+            this.interval = interval.toNanos();
+            this.mode = mode;
+
+            this.duration = Timer.builder(config.metrics().baseName() + "." + METRICS_JOB_DURATION)
+                .tag(TAG_JOB, id)
+                .register(registry);
+            this.lateness = Timer.builder(config.metrics().baseName() + "." + METRICS_JOB_LATENESS)
+                .tag(TAG_JOB, id)
+                .register(registry);
+            this.skipped = Counter.builder(config.metrics().baseName() + "." + METRICS_JOB_SKIPPED)
+                .tag(TAG_JOB, id)
+                .register(registry);
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+
+            final long start = System.nanoTime();
+            lateness.record(Math.max(0, start - planned), TimeUnit.NANOSECONDS);
+
+            try {
+                task.run();
+            } catch (Exception e) {
+                LOGGER.warn("Error executing job {}", id, e);
+            } finally {
+                final long end = System.nanoTime();
+                duration.record(end - start, TimeUnit.NANOSECONDS);
+
+                if (mode == Mode.FIXED_DELAY) {
+                    slot = end + interval;
+                } else {
+                    // skip the slots missed while the job was running instead of catching up with them
+                    slot += interval;
+
+                    if (slot - end < 0) {
+                        final long missed = (end - slot) / interval + 1;
+                        skipped.increment(missed);
+                        slot += missed * interval;
+                    }
+                }
+
+                next();
+            }
+        }
+
+        void schedule(long now) {
+            this.slot = now;
+            next();
+        }
+
+        void cancel() {
+            cancelled = true;
+
+            final ScheduledFuture<?> current = future;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+
+        private void next() {
+            if (cancelled || executor.isShutdown()) {
+                return;
+            }
+
+            planned = slot + jitter();
+
+            try {
+                future = executor.schedule(this, Math.max(0, planned - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Not rescheduling job {} as the scheduler has been shut down", id);
+            }
+        }
+
+        private long jitter() {
+            final double ratio = config.scheduler().jitter();
+            if (ratio <= 0) {
+                return 0;
+            }
+
+            return (long) (ThreadLocalRandom.current().nextDouble() * ratio * interval);
+        }
+    }
 }
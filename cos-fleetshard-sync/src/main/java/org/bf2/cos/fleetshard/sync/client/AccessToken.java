@@ -0,0 +1,110 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.fabric8.kubernetes.client.utils.Serialization;
+
+/**
+ * An access token along with the time it has been acquired and the time it expires.
+ */
+final class AccessToken {
+    private final String value;
+    private final Instant acquiredAt;
+    private final Instant expiresAt;
+
+    private AccessToken(String value, Instant acquiredAt, Instant expiresAt) {
+        this.value = value;
+        this.acquiredAt = acquiredAt;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Create an access token, using the {@code exp} claim of the token to determine its expiration if the token is a
+     * JWT, or the expiration advertised by the token endpoint otherwise.
+     *
+     * @param  value      the access token.
+     * @param  expiresAt  the expiration, in seconds since the epoch, advertised by the token endpoint, may be null.
+     * @param  acquiredAt the time the token has been acquired.
+     * @return            the access token.
+     */
+    static AccessToken of(String value, Long expiresAt, Instant acquiredAt) {
+        Long exp = claimExpiration(value);
+        if (exp == null) {
+            exp = expiresAt;
+        }
+
+        return new AccessToken(
+            value,
+            acquiredAt,
+            exp != null ? Instant.ofEpochSecond(exp) : null);
+    }
+
+    String getValue() {
+        return value;
+    }
+
+    Instant getAcquiredAt() {
+        return acquiredAt;
+    }
+
+    /**
+     * @return the expiration of the token, or null if unknown.
+     */
+    Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * @param  now the current time.
+     * @return     true if the token is expired, tokens with an unknown expiration never expire.
+     */
+    boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+
+    /**
+     * Determine when the token should be refreshed, i.e. once the given fraction of its lifetime has elapsed.
+     *
+     * @param  ratio the fraction of the lifetime after which the token should be refreshed.
+     * @return       the time at which the token should be refreshed, or null if the token does not expire.
+     */
+    Instant refreshAt(double ratio) {
+        if (expiresAt == null) {
+            return null;
+        }
+
+        final Duration lifetime = Duration.between(acquiredAt, expiresAt);
+        if (lifetime.isNegative()) {
+            return acquiredAt;
+        }
+
+        return acquiredAt.plusMillis((long) (lifetime.toMillis() * Math.min(1.0, Math.max(0.0, ratio))));
+    }
+
+    private static Long claimExpiration(String token) {
+        if (token == null) {
+            return null;
+        }
+
+        final String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return null;
+        }
+
+        try {
+            final byte[] payload = Base64.getUrlDecoder().decode(parts[1]);
+            final JsonNode exp = Serialization.jsonMapper()
+                .readTree(new String(payload, StandardCharsets.UTF_8))
+                .get("exp");
+
+            return exp != null && exp.canConvertToLong() ? exp.asLong() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package org.bf2.cos.fleetshard.sync.client;
 
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.ws.rs.core.UriBuilder;
@@ -19,16 +25,23 @@ import org.eclipse.microprofile.rest.client.RestClientBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.quarkus.oidc.client.OidcClient;
 import io.quarkus.oidc.client.OidcClientConfig;
 import io.quarkus.oidc.client.OidcClients;
+import io.quarkus.oidc.client.Tokens;
 import io.quarkus.oidc.client.filter.OidcClientRequestFilter;
-import io.quarkus.oidc.client.runtime.TokensHelper;
 
 @ApplicationScoped
 public class AuthTokenSupplier implements Supplier<String> {
     private static final Logger LOGGER = LoggerFactory.getLogger(OidcClientRequestFilter.class);
     private static final String METRICS_REFRESH = "connectors.oidc.refresh";
+    private static final String METRICS_TOKEN_AGE = "connectors.oidc.token.age";
+    private static final String METRICS_TOKEN_REFRESH = "connectors.oidc.token.refresh";
+    private static final long MIN_REFRESH_DELAY_MILLIS = 1_000;
     private static final String TOKEN_PATH = "/protocol/openid-connect/token";
 
     @Inject
@@ -36,6 +49,9 @@ public class AuthTokenSupplier implements Supplier<String> {
     @Inject
     FleetShardSyncConfig config;
 
+    @Inject
+    MeterRegistry registry;
+
     @Inject
     @MetricsID(METRICS_REFRESH)
     MetricsRecorder recorder;
@@ -45,12 +61,33 @@ public class AuthTokenSupplier implements Supplier<String> {
     @ConfigProperty(name = "client-secret")
     String clientSecret;
 
-    private TokensHelper tokensHelper;
+    private final Object lock = new Object();
+
     private OidcClientSupplier supplier;
+    private ScheduledExecutorService refresher;
+    private Timer refreshTimer;
+    private Counter refreshFailures;
+
+    private volatile AccessToken token;
 
     @PostConstruct
     public void setUp() {
-        this.tokensHelper = new TokensHelper();
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread answer = new Thread(r, "cos-oidc-token-refresh");
+            answer.setDaemon(true);
+            return answer;
+        });
+
+        this.refreshTimer = Timer.builder(config.metrics().baseName() + "." + METRICS_TOKEN_REFRESH)
+            .publishPercentileHistogram()
+            .register(registry);
+        this.refreshFailures = Counter.builder(config.metrics().baseName() + "." + METRICS_TOKEN_REFRESH + ".failures")
+            .register(registry);
+
+        Gauge.builder(config.metrics().baseName() + "." + METRICS_TOKEN_AGE, this, AuthTokenSupplier::tokenAge)
+            .baseUnit("seconds")
+            .register(registry);
+
         if (config.manager().ssoUri().isPresent()) {
             this.supplier = new OidcStaticClientSupplier();
             LOGGER.info("Using static Oidc client.");
@@ -60,25 +97,119 @@ public class AuthTokenSupplier implements Supplier<String> {
         }
     }
 
+    @PreDestroy
+    public void tearDown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Return the access token to authenticate requests to the Control Plane.
+     * </p>
+     * The token is served from a cache without any locking while valid, and refreshed in the background before it
+     * expires. It is acquired inline only if there is no valid token, i.e. on the first request or if the background
+     * refresh did not succeed before the token expired.
+     *
+     * @return the access token.
+     */
     @Override
     public String get() {
+        final AccessToken current = token;
+        if (current != null && !current.isExpired(Instant.now())) {
+            return current.getValue();
+        }
+
         return RestClientHelper.call(() -> {
-            OidcClient client = client();
-            if (client == null) {
-                reset();
-                throw new IllegalStateException("Unable to create oidc client");
-            }
+            synchronized (lock) {
+                final AccessToken t = token;
+                if (t != null && !t.isExpired(Instant.now())) {
+                    return t.getValue();
+                }
 
-            return this.tokensHelper.getTokens(client)
-                .await().atMost(config.manager().ssoTimeout())
-                .getAccessToken();
+                return acquire().getValue();
+            }
         });
     }
 
     public void reset() {
+        this.token = null;
         this.supplier.close();
     }
 
+    private AccessToken acquire() {
+        OidcClient client = client();
+        if (client == null) {
+            reset();
+            throw new IllegalStateException("Unable to create oidc client");
+        }
+
+        final long start = System.nanoTime();
+
+        try {
+            final Tokens tokens = client.getTokens().await().atMost(config.manager().ssoTimeout());
+            final AccessToken answer = AccessToken.of(
+                tokens.getAccessToken(),
+                tokens.getAccessTokenExpiresAt(),
+                Instant.now());
+
+            this.token = answer;
+
+            scheduleRefresh(answer, answer.refreshAt(config.manager().ssoTokenRefreshRatio()));
+
+            return answer;
+        } finally {
+            refreshTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void scheduleRefresh(AccessToken current, Instant at) {
+        if (at == null) {
+            return;
+        }
+
+        final long delay = Math.max(MIN_REFRESH_DELAY_MILLIS, Duration.between(Instant.now(), at).toMillis());
+
+        try {
+            refresher.schedule(() -> refresh(current), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Token refresh not scheduled as the refresher has been shut down");
+        }
+    }
+
+    private void refresh(AccessToken current) {
+        try {
+            synchronized (lock) {
+                // the token has been reset or replaced in the meantime
+                if (token != current) {
+                    return;
+                }
+
+                acquire();
+            }
+        } catch (Exception e) {
+            refreshFailures.increment();
+
+            final Instant now = Instant.now();
+
+            LOGGER.warn("Error refreshing access token, expires at: {}", current.getExpiresAt(), e);
+
+            // keep on trying while the current token is still valid, once expired, the next request acquires a token
+            if (token == current && !current.isExpired(now)) {
+                scheduleRefresh(current, now.plus(Duration.between(now, current.getExpiresAt()).dividedBy(2)));
+            }
+        }
+    }
+
+    private double tokenAge() {
+        final AccessToken current = token;
+        if (current == null) {
+            return Double.NaN;
+        }
+
+        return Duration.between(current.getAcquiredAt(), Instant.now()).toMillis() / 1000.0;
+    }
+
     public OidcClient client() {
         return recorder.recordCallable(() -> {
             return this.supplier.get();
@@ -0,0 +1,126 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.time.Duration;
+
+/**
+ * A circuit breaker shared by all the requests to the Control Plane.
+ * </p>
+ * The circuit opens after a number of consecutive failures, and requests are then rejected without reaching the
+ * Control Plane. Once the open delay has elapsed, the circuit becomes half-open and a single probe request is let
+ * through: the circuit closes if it succeeds and opens again otherwise.
+ * </p>
+ * Each transition starts a new generation, and a permit carries the generation it has been acquired in. The outcome
+ * of a request that completes after the circuit has moved on, i.e. a request started before the circuit opened, is
+ * ignored, so it can neither close an open circuit nor delay the probe.
+ */
+class CircuitBreaker {
+    enum State {
+        CLOSED(0),
+        OPEN(1),
+        HALF_OPEN(2);
+
+        final int value;
+
+        State(int value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * The value returned by {@link #tryAcquire()} when the request is rejected.
+     */
+    static final long NOT_PERMITTED = -1;
+
+    private final int failureThreshold;
+    private final long openDelay;
+
+    private State state;
+    private int failures;
+    private long openedAt;
+    private boolean probing;
+    private long generation;
+
+    CircuitBreaker(int failureThreshold, Duration openDelay) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDelay = openDelay.toNanos();
+        this.state = State.CLOSED;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return true if a request would currently be permitted, without acquiring the permission.
+     */
+    synchronized boolean isCallPermitted() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                return System.nanoTime() - openedAt >= openDelay;
+            default:
+                return !probing;
+        }
+    }
+
+    /**
+     * Acquire the permission to perform a request, a permitted request must be followed by a call to either
+     * {@link #onSuccess(long)} or {@link #onFailure(long)} with the returned permit.
+     *
+     * @return the permit, or {@link #NOT_PERMITTED} if the request is rejected.
+     */
+    synchronized long tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return generation;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openDelay) {
+                    return NOT_PERMITTED;
+                }
+
+                transition(State.HALF_OPEN);
+                probing = true;
+                return generation;
+            default:
+                if (probing) {
+                    return NOT_PERMITTED;
+                }
+
+                probing = true;
+                return generation;
+        }
+    }
+
+    synchronized void onSuccess(long permit) {
+        if (permit != generation) {
+            return;
+        }
+
+        if (state != State.CLOSED) {
+            transition(State.CLOSED);
+        }
+
+        failures = 0;
+        probing = false;
+    }
+
+    synchronized void onFailure(long permit) {
+        if (permit != generation) {
+            return;
+        }
+
+        failures++;
+        probing = false;
+
+        if (state == State.HALF_OPEN || failures >= failureThreshold) {
+            transition(State.OPEN);
+            openedAt = System.nanoTime();
+        }
+    }
+
+    private void transition(State next) {
+        state = next;
+        generation++;
+    }
+}
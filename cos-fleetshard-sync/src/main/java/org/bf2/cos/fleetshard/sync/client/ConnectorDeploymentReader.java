@@ -0,0 +1,130 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import org.bf2.cos.fleet.manager.model.ConnectorDeployment;
+import org.bf2.cos.fleet.manager.model.ConnectorDeploymentSpec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+/**
+ * Decodes a page of connector deployments as a stream, parsing one item at a time and handing it to a consumer instead
+ * of materializing the whole {@link org.bf2.cos.fleet.manager.model.ConnectorDeploymentList} as a JSON tree. The
+ * consumer decides what to retain: the client buffers the items of a page so they can be ordered by revision.
+ * </p>
+ * The connector spec is not turned into a JSON tree but kept as its raw, compacted, JSON text which is written as it
+ * is when the spec is serialized into the connector secret, preserving the order of the fields and the formatting of
+ * the numbers.
+ */
+class ConnectorDeploymentReader {
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final ObjectMapper mapper;
+    private final ObjectReader reader;
+
+    ConnectorDeploymentReader(ObjectMapper mapper) {
+        this.mapper = mapper.copy().addMixIn(ConnectorDeploymentSpec.class, RawConnectorSpec.class);
+        this.reader = this.mapper.readerFor(ConnectorDeployment.class);
+    }
+
+    /**
+     * Decode a page of connector deployments.
+     *
+     * @param  in          the stream of the page.
+     * @param  consumer    the consumer of the deployments.
+     * @return             the decoded page.
+     * @throws IOException if the page cannot be decoded.
+     */
+    Page read(InputStream in, Consumer<ConnectorDeployment> consumer) throws IOException {
+        final Page page = new Page();
+
+        try (JsonParser parser = mapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected a JSON object but got " + parser.currentToken());
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String field = parser.getCurrentName();
+                final JsonToken token = parser.nextToken();
+
+                if ("total".equals(field) && token.isNumeric()) {
+                    page.total = parser.getLongValue();
+                } else if ("items".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        consumer.accept(reader.readValue(parser));
+                        page.items++;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            page.bytes = parser.getCurrentLocation().getByteOffset();
+        }
+
+        return page;
+    }
+
+    static class Page {
+        long items;
+        long total;
+        long bytes;
+    }
+
+    abstract static class RawConnectorSpec {
+        @JsonDeserialize(using = RawJsonDeserializer.class)
+        abstract void setConnectorSpec(JsonNode connectorSpec);
+    }
+
+    static class RawJsonDeserializer extends JsonDeserializer<JsonNode> {
+        @Override
+        public JsonNode deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            try (JsonGenerator generator = FACTORY.createGenerator(out)) {
+                copy(parser, generator);
+            }
+
+            return new POJONode(new RawValue(out.toString(StandardCharsets.UTF_8)));
+        }
+
+        /**
+         * Copy the current structure like {@link JsonGenerator#copyCurrentStructure(JsonParser)} does, except that
+         * numbers are written with their original text so that their formatting and precision are preserved.
+         */
+        private static void copy(JsonParser parser, JsonGenerator generator) throws IOException {
+            int depth = 0;
+
+            do {
+                final JsonToken token = parser.currentToken();
+
+                if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    generator.writeNumber(parser.getText());
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+            } while (depth > 0 && parser.nextToken() != null);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import org.bf2.cos.fleet.manager.model.ConnectorNamespaceDeployment;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A watch event of the connector namespaces stream.
+ * </p>
+ * The namespaces watch is not part of the Control Plane API spec yet, as it depends on a Control Plane change that has
+ * not been released, hence the event is mapped here rather than generated, mirroring the generated
+ * {@link org.bf2.cos.fleet.manager.model.ConnectorDeploymentWatchEvent}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+final class ConnectorNamespaceWatchEvent {
+    @JsonProperty("type")
+    private String type;
+    @JsonProperty("error")
+    private org.bf2.cos.fleet.manager.model.Error error;
+    @JsonProperty("object")
+    private ConnectorNamespaceDeployment object;
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public org.bf2.cos.fleet.manager.model.Error getError() {
+        return error;
+    }
+
+    public void setError(org.bf2.cos.fleet.manager.model.Error error) {
+        this.error = error;
+    }
+
+    public ConnectorNamespaceDeployment getObject() {
+        return object;
+    }
+
+    public void setObject(ConnectorNamespaceDeployment object) {
+        this.object = object;
+    }
+}
@@ -1,30 +1,58 @@
 package org.bf2.cos.fleetshard.sync.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.core.UriBuilder;
 
 import org.bf2.cos.fleet.manager.model.ConnectorClusterStatus;
 import org.bf2.cos.fleet.manager.model.ConnectorDeployment;
 import org.bf2.cos.fleet.manager.model.ConnectorDeploymentList;
 import org.bf2.cos.fleet.manager.model.ConnectorDeploymentStatus;
+import org.bf2.cos.fleet.manager.model.ConnectorDeploymentWatchEvent;
 import org.bf2.cos.fleet.manager.model.ConnectorNamespaceDeployment;
 import org.bf2.cos.fleet.manager.model.ConnectorNamespaceDeploymentList;
 import org.bf2.cos.fleet.manager.model.ConnectorNamespaceDeploymentStatus;
 import org.bf2.cos.fleetshard.api.ManagedConnector;
+import org.bf2.cos.fleetshard.support.function.ThrowingRunnable;
 import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
 import org.eclipse.microprofile.rest.client.RestClientBuilder;
+import org.jboss.resteasy.plugins.interceptors.AcceptEncodingGZIPFilter;
+import org.jboss.resteasy.plugins.interceptors.GZIPDecodingInterceptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.utils.Serialization;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @ApplicationScoped
 public class FleetManagerClient {
@@ -32,83 +60,518 @@ public class FleetManagerClient {
 
     final FleetShardSyncConfig config;
     final FleetManagerClientApi controlPlane;
+    final FleetManagerClientApi controlPlaneWatch;
+    final FleetManagerClientAsyncApi controlPlaneAsync;
+    final ObjectMapper mapper;
+    final MeterRegistry registry;
+    final ExecutorService pagesExecutor;
+    final ExecutorService asyncExecutor;
+    final PageSizeTuner namespacesPageSize;
+    final PageSizeTuner deploymentsPageSize;
+    final ConnectorDeploymentReader deploymentsReader;
+    final CircuitBreaker breaker;
+    final RetryBudget retryBudget;
+    final Counter rejected;
+    final Counter retries;
+    final Counter retriesRejected;
+
+    public FleetManagerClient(
+        FleetShardSyncConfig config,
+        AuthRequestFilter filter,
+        ObjectMapper mapper,
+        MeterRegistry registry) {
 
-    public FleetManagerClient(FleetShardSyncConfig config, AuthRequestFilter filter) {
         this.config = config;
+        this.mapper = mapper;
+        this.registry = registry;
+
+        this.pagesExecutor = Executors.newCachedThreadPool(r -> {
+            Thread answer = new Thread(r, "cos-fleet-manager-pages");
+            answer.setDaemon(true);
+            return answer;
+        });
+
+        final AtomicInteger asyncCounter = new AtomicInteger();
+
+        // requests are dispatched on a bounded pool, which caps the number of in-flight requests and thus the number
+        // of threads waiting on network I/O, further requests are queued
+        this.asyncExecutor = Executors.newFixedThreadPool(config.manager().async().maxConcurrency(), r -> {
+            Thread answer = new Thread(r, "cos-fleet-manager-async-" + asyncCounter.incrementAndGet());
+            answer.setDaemon(true);
+            return answer;
+        });
 
         UriBuilder builder = UriBuilder.fromUri(config.manager().uri())
             .path("/api/connector_mgmt/v1/agent");
 
-        this.controlPlane = RestClientBuilder.newBuilder()
+        RestClientBuilder controlPlaneBuilder = RestClientBuilder.newBuilder()
             .baseUri(builder.build())
             .register(filter)
             .connectTimeout(config.manager().connectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+            .readTimeout(config.manager().readTimeout().toMillis(), TimeUnit.MILLISECONDS);
+
+        if (config.manager().gzip()) {
+            controlPlaneBuilder = controlPlaneBuilder
+                .register(AcceptEncodingGZIPFilter.class)
+                .register(GZIPDecodingInterceptor.class);
+        }
+
+        this.controlPlane = controlPlaneBuilder.build(FleetManagerClientApi.class);
+
+        this.controlPlaneAsync = RestClientBuilder.newBuilder()
+            .baseUri(builder.build())
+            .register(filter)
+            .executorService(asyncExecutor)
+            .connectTimeout(config.manager().connectTimeout().toMillis(), TimeUnit.MILLISECONDS)
             .readTimeout(config.manager().readTimeout().toMillis(), TimeUnit.MILLISECONDS)
+            .build(FleetManagerClientAsyncApi.class);
+
+        // the watch stream is not compressed as compression would buffer events
+
+        this.controlPlaneWatch = RestClientBuilder.newBuilder()
+            .baseUri(builder.build())
+            .register(filter)
+            .connectTimeout(config.manager().connectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+            .readTimeout(config.resources().watch().readTimeout().toMillis(), TimeUnit.MILLISECONDS)
             .build(FleetManagerClientApi.class);
+
+        this.namespacesPageSize = pageSizeTuner(config);
+        this.deploymentsPageSize = pageSizeTuner(config);
+        this.deploymentsReader = new ConnectorDeploymentReader(mapper);
+
+        final FleetShardSyncConfig.CircuitBreaker breakerConfig = config.manager().circuitBreaker();
+        final FleetShardSyncConfig.RetryBudget budgetConfig = config.manager().retryBudget();
+        final String metricsId = config.metrics().baseName() + ".manager";
+
+        this.breaker = breakerConfig.enabled()
+            ? new CircuitBreaker(breakerConfig.failureThreshold(), breakerConfig.openDelay())
+            : null;
+        this.retryBudget = new RetryBudget(
+            budgetConfig.ratio(),
+            budgetConfig.maxTokens(),
+            budgetConfig.refillInterval());
+
+        this.rejected = Counter.builder(metricsId + ".circuit.rejected").register(registry);
+        this.retries = Counter.builder(metricsId + ".retries").register(registry);
+        this.retriesRejected = Counter.builder(metricsId + ".retries.rejected").register(registry);
+
+        if (breaker != null) {
+            Gauge.builder(metricsId + ".circuit.state", breaker, b -> b.getState().value)
+                .register(registry);
+        }
+
+        Gauge.builder(metricsId + ".retries.budget", retryBudget, RetryBudget::getTokens)
+            .register(registry);
+    }
+
+    private static PageSizeTuner pageSizeTuner(FleetShardSyncConfig config) {
+        final FleetShardSyncConfig.PageSizeTuning tuning = config.resources().pageSizeTuning();
+        if (!tuning.enabled()) {
+            return null;
+        }
+
+        final long target = (long) (config.manager().readTimeout().toMillis() * tuning.targetLatencyRatio());
+
+        return new PageSizeTuner(
+            config.resources().pageSize().orElse(tuning.minSize()),
+            tuning.minSize(),
+            tuning.maxSize(),
+            Duration.ofMillis(target),
+            tuning.targetBytes());
+    }
+
+    /**
+     * @return true if requests to the Control Plane are currently permitted by the circuit breaker.
+     */
+    public boolean isAvailable() {
+        return breaker == null || breaker.isCallPermitted();
+    }
+
+    /**
+     * Request the permission to retry a failed operation, withdrawing from the client-wide retry budget.
+     *
+     * @return true if the retry is allowed.
+     */
+    public boolean tryRetry() {
+        if (retryBudget.tryRetry()) {
+            retries.increment();
+            return true;
+        }
+
+        retriesRejected.increment();
+        return false;
+    }
+
+    /**
+     * Run a request to the Control Plane through the circuit breaker.
+     */
+    private <T> T guarded(Callable<T> call) {
+        final long permit = acquire();
+
+        final T answer;
+
+        try {
+            answer = call.call();
+        } catch (Exception e) {
+            FleetManagerClientException failure = RestClientHelper.wrap(e);
+            release(permit, failure);
+            throw failure;
+        }
+
+        release(permit, null);
+
+        return answer;
+    }
+
+    /**
+     * Run a request to the Control Plane through the circuit breaker.
+     */
+    private <T extends Throwable> void guarded(ThrowingRunnable<T> runnable) {
+        final long permit = acquire();
+
+        try {
+            RestClientHelper.run(runnable);
+        } catch (FleetManagerClientException e) {
+            release(permit, e);
+            throw e;
+        }
+
+        release(permit, null);
+    }
+
+    private long acquire() {
+        final long permit = breaker != null ? breaker.tryAcquire() : 0;
+
+        if (permit == CircuitBreaker.NOT_PERMITTED) {
+            rejected.increment();
+            throw new FleetManagerUnavailableException("Control Plane circuit breaker is open");
+        }
+
+        retryBudget.deposit();
+
+        return permit;
+    }
+
+    private void release(long permit, Throwable failure) {
+        if (breaker == null) {
+            return;
+        }
+
+        if (failure != null && isUnavailable(failure)) {
+            breaker.onFailure(permit);
+        } else {
+            breaker.onSuccess(permit);
+        }
+    }
+
+    /**
+     * Determine if a failure denotes that the Control Plane is unavailable, i.e. the Control Plane could not be
+     * reached, did not respond in time, or responded with a server error. Other failures, like a 410 for a deleted
+     * deployment, mean the Control Plane is healthy. Failures raised by the Kubernetes client are never attributed to
+     * the Control Plane.
+     */
+    static boolean isUnavailable(Throwable failure) {
+        Throwable cause = failure;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        if (cause instanceof FleetManagerClientException) {
+            final int status = ((FleetManagerClientException) cause).getStatusCode();
+            if (status != 0) {
+                return status >= 500 || status == 429;
+            }
+        }
+
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof KubernetesClientException) {
+                return false;
+            }
+            if (t instanceof ProcessingException || t instanceof IOException || t instanceof TimeoutException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @PreDestroy
+    void destroy() {
+        pagesExecutor.shutdownNow();
+        asyncExecutor.shutdownNow();
     }
 
     public void getNamespaces(long gv, Consumer<Collection<ConnectorNamespaceDeployment>> consumer) {
         RestClientHelper.run(() -> {
             LOGGER.debug("polling namespaces with gv: {}", gv);
 
-            final AtomicInteger counter = new AtomicInteger();
             final List<ConnectorNamespaceDeployment> items = new ArrayList<>();
+            final String size = pageSize(namespacesPageSize);
 
-            for (int i = 1; i < Integer.MAX_VALUE; i++) {
-                ConnectorNamespaceDeploymentList list = controlPlane.getConnectorNamespaces(
-                    config.cluster().id(),
-                    Integer.toString(i),
-                    null,
-                    gv);
-
-                if (list == null || list.getItems() == null || list.getItems().isEmpty()) {
-                    LOGGER.info("No namespace for cluster {}", config.cluster().id());
-                    break;
-                }
-
-                items.addAll(list.getItems());
+            long count = this.<ConnectorNamespaceDeployment> pagedRequest("namespaces").run(
+                page -> {
+                    ConnectorNamespaceDeploymentList list = fetchPage(
+                        "namespaces",
+                        namespacesPageSize,
+                        () -> controlPlane.getConnectorNamespaces(
+                            config.cluster().id(),
+                            Integer.toString(page),
+                            size,
+                            gv),
+                        l -> l.getItems() != null ? l.getItems().size() : 0);
 
-                consumer.accept(items);
+                    return list == null
+                        ? new PagedRequest.Page<>(null, 0)
+                        : new PagedRequest.Page<>(list.getItems(), list.getTotal());
+                },
+                page -> {
+                    items.addAll(page);
+                    consumer.accept(items);
+                });
 
-                if (counter.addAndGet(items.size()) >= list.getTotal()) {
-                    break;
-                }
+            if (count == 0) {
+                LOGGER.info("No namespace for cluster {}", config.cluster().id());
             }
         });
     }
 
     public void getDeployments(long gv, Consumer<Collection<ConnectorDeployment>> consumer) {
+        if (config.resources().streamingDecode()) {
+            streamDeployments(gv, consumer);
+            return;
+        }
+
         RestClientHelper.run(() -> {
             LOGGER.debug("polling deployment with gv: {}", gv);
 
-            final AtomicInteger counter = new AtomicInteger();
-            final List<ConnectorDeployment> items = new ArrayList<>();
+            final String size = pageSize(deploymentsPageSize);
 
-            for (int i = 1; i < Integer.MAX_VALUE; i++) {
-                ConnectorDeploymentList list = controlPlane.getConnectorDeployments(
-                    config.cluster().id(),
-                    Integer.toString(i),
-                    null,
-                    gv);
+            long count = this.<ConnectorDeployment> pagedRequest("connectors").run(
+                page -> {
+                    ConnectorDeploymentList list = fetchPage(
+                        "connectors",
+                        deploymentsPageSize,
+                        () -> controlPlane.getConnectorDeployments(
+                            config.cluster().id(),
+                            Integer.toString(page),
+                            size,
+                            gv),
+                        l -> l.getItems() != null ? l.getItems().size() : 0);
 
-                if (list == null || list.getItems() == null || list.getItems().isEmpty()) {
-                    LOGGER.info("No connectors for cluster {}", config.cluster().id());
-                    break;
-                }
+                    if (list == null) {
+                        return new PagedRequest.Page<>(null, 0);
+                    }
 
-                items.clear();
-                items.addAll(list.getItems());
-                items.sort(Comparator.comparingLong(d -> d.getMetadata().getResourceVersion()));
+                    final List<ConnectorDeployment> items = new ArrayList<>();
+                    if (list.getItems() != null) {
+                        items.addAll(list.getItems());
+                        items.sort(Comparator.comparingLong(d -> d.getMetadata().getResourceVersion()));
+                    }
 
-                consumer.accept(items);
+                    return new PagedRequest.Page<>(items, list.getTotal());
+                },
+                consumer::accept);
 
-                if (counter.addAndGet(items.size()) >= list.getTotal()) {
-                    break;
-                }
+            if (count == 0) {
+                LOGGER.info("No connectors for cluster {}", config.cluster().id());
             }
         });
     }
 
+    /**
+     * Retrieve the deployments decoding each page as a stream, so that the connector specs are never materialized as
+     * JSON trees. Like for the paged retrieval, the deployments of a page are handed to the consumer ordered by
+     * revision.
+     */
+    private void streamDeployments(long gv, Consumer<Collection<ConnectorDeployment>> consumer) {
+        RestClientHelper.run(() -> {
+            LOGGER.debug("streaming deployment with gv: {}", gv);
+
+            final String size = pageSize(deploymentsPageSize);
+
+            long count = this.<ConnectorDeployment> pagedRequest("connectors").run(
+                page -> {
+                    final List<ConnectorDeployment> items = new ArrayList<>();
+
+                    ConnectorDeploymentReader.Page result = fetchPage(
+                        "connectors",
+                        deploymentsPageSize,
+                        () -> {
+                            try (InputStream is = controlPlane.streamConnectorDeployments(
+                                config.cluster().id(),
+                                Integer.toString(page),
+                                size,
+                                gv)) {
+
+                                return deploymentsReader.read(is, items::add);
+                            }
+                        },
+                        p -> (int) p.items,
+                        p -> p.bytes);
+
+                    items.sort(Comparator.comparingLong(d -> d.getMetadata().getResourceVersion()));
+
+                    return new PagedRequest.Page<>(items, result.total);
+                },
+                consumer::accept);
+
+            if (count == 0) {
+                LOGGER.info("No connectors for cluster {}", config.cluster().id());
+            }
+        });
+    }
+
+    /**
+     * Determine the page size for a listing. The size must not change while iterating as the page offsets would
+     * shift, hence tuning only affects the next listing.
+     */
+    private String pageSize(PageSizeTuner tuner) {
+        if (tuner != null) {
+            return Integer.toString(tuner.get());
+        }
+
+        return config.resources().pageSize().map(Object::toString).orElse(null);
+    }
+
+    private <L> L fetchPage(String id, PageSizeTuner tuner, Callable<L> call, ToIntFunction<L> counter)
+        throws Exception {
+
+        // the size of the responses decoded by the REST client is not known
+        return fetchPage(id, tuner, call, counter, l -> -1);
+    }
+
+    private <L> L fetchPage(
+        String id,
+        PageSizeTuner tuner,
+        Callable<L> call,
+        ToIntFunction<L> counter,
+        ToLongFunction<L> sizer) throws Exception {
+
+        final String metricsId = config.metrics().baseName() + "." + id + ".pages";
+        final long start = System.nanoTime();
+        final L answer = guarded(call);
+        final Duration latency = Duration.ofNanos(System.nanoTime() - start);
+        final int items = answer != null ? counter.applyAsInt(answer) : 0;
+        final long bytes = answer != null ? sizer.applyAsLong(answer) : -1;
+
+        Timer.builder(metricsId + ".latency")
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(latency);
+        DistributionSummary.builder(metricsId + ".items")
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(items);
+
+        if (bytes >= 0) {
+            DistributionSummary.builder(metricsId + ".bytes")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(bytes);
+        }
+
+        if (tuner != null) {
+            tuner.record(latency, items, bytes);
+        }
+
+        return answer;
+    }
+
+    private <T> PagedRequest<T> pagedRequest(String id) {
+        final String metricsId = config.metrics().baseName() + "." + id + ".pages";
+
+        return new PagedRequest<>(
+            pagesExecutor,
+            config.resources().pagePrefetch(),
+            Timer.builder(metricsId + ".wait").register(registry),
+            Timer.builder(metricsId + ".provision").register(registry));
+    }
+
+    /**
+     * Watch the connector namespaces assigned to the cluster, starting from the given revision. This method blocks
+     * until the stream is closed by the Control Plane or an error occurs.
+     *
+     * @param gv          the revision to start watching from.
+     * @param onConnected invoked once the stream has been established.
+     * @param consumer    the consumer for the namespaces received from the stream.
+     */
+    public void watchNamespaces(long gv, Runnable onConnected, Consumer<ConnectorNamespaceDeployment> consumer) {
+        RestClientHelper.run(() -> {
+            LOGGER.debug("watching namespaces with gv: {}", gv);
+
+            watch(
+                () -> controlPlaneWatch.watchConnectorNamespaces(config.cluster().id(), gv, "true"),
+                ConnectorNamespaceWatchEvent.class,
+                onConnected,
+                event -> {
+                    if (event.getError() != null) {
+                        throw new FleetManagerClientException(
+                            "Error watching namespaces: " + Serialization.asJson(event.getError()));
+                    }
+                    if (event.getObject() != null) {
+                        LOGGER.debug("watch event type: {}, namespace_id: {}, resource_version: {}",
+                            event.getType(),
+                            event.getObject().getId(),
+                            event.getObject().getResourceVersion());
+
+                        consumer.accept(event.getObject());
+                    }
+                });
+        });
+    }
+
+    /**
+     * Watch the connector deployments assigned to the cluster, starting from the given revision. This method blocks
+     * until the stream is closed by the Control Plane or an error occurs.
+     *
+     * @param gv          the revision to start watching from.
+     * @param onConnected invoked once the stream has been established.
+     * @param consumer    the consumer for the deployments received from the stream.
+     */
+    public void watchDeployments(long gv, Runnable onConnected, Consumer<ConnectorDeployment> consumer) {
+        RestClientHelper.run(() -> {
+            LOGGER.debug("watching deployments with gv: {}", gv);
+
+            watch(
+                () -> controlPlaneWatch.watchConnectorDeployments(config.cluster().id(), gv, "true"),
+                ConnectorDeploymentWatchEvent.class,
+                onConnected,
+                event -> {
+                    if (event.getError() != null) {
+                        throw new FleetManagerClientException(
+                            "Error watching deployments: " + Serialization.asJson(event.getError()));
+                    }
+                    if (event.getObject() != null) {
+                        LOGGER.debug("watch event type: {}, deployment_id: {}, resource_version: {}",
+                            event.getType(),
+                            event.getObject().getId(),
+                            event.getObject().getMetadata().getResourceVersion());
+
+                        consumer.accept(event.getObject());
+                    }
+                });
+        });
+    }
+
+    private <E> void watch(
+        Callable<InputStream> stream,
+        Class<E> eventType,
+        Runnable onConnected,
+        Consumer<E> consumer) throws Exception {
+
+        try (InputStream is = guarded(stream)) {
+            // the Control Plane has responded, the events are read lazily as they are pushed
+            onConnected.run();
+
+            try (MappingIterator<E> events = mapper.readerFor(eventType).readValues(is)) {
+                while (events.hasNextValue()) {
+                    consumer.accept(events.nextValue());
+                }
+            }
+        }
+    }
+
     public void updateConnectorStatus(ManagedConnector connector, ConnectorDeploymentStatus status) {
         updateConnectorStatus(
             connector.getSpec().getClusterId(),
@@ -117,7 +580,7 @@ public class FleetManagerClient {
     }
 
     public void updateConnectorStatus(String clusterId, String deploymentId, ConnectorDeploymentStatus status) {
-        RestClientHelper.run(() -> {
+        guarded(() -> {
             LOGGER.info("Update connector status: cluster_id={}, deployment_id={}, status={}",
                 clusterId,
                 deploymentId,
@@ -130,8 +593,112 @@ public class FleetManagerClient {
         });
     }
 
+    /**
+     * Asynchronously update the status of a connector deployment.
+     *
+     * @param  connector the connector.
+     * @param  status    the status.
+     * @return           a stage completed once the status has been updated, or completed exceptionally with a
+     *                   {@link FleetManagerClientException}.
+     */
+    public CompletionStage<Void> updateConnectorStatusAsync(
+        ManagedConnector connector,
+        ConnectorDeploymentStatus status) {
+
+        return updateConnectorStatusAsync(
+            connector.getSpec().getClusterId(),
+            connector.getSpec().getDeploymentId(),
+            status);
+    }
+
+    /**
+     * Asynchronously update the status of a connector deployment.
+     *
+     * @param  clusterId    the cluster id.
+     * @param  deploymentId the deployment id.
+     * @param  status       the status.
+     * @return              a stage completed once the status has been updated, or completed exceptionally with a
+     *                      {@link FleetManagerClientException}.
+     */
+    public CompletionStage<Void> updateConnectorStatusAsync(
+        String clusterId,
+        String deploymentId,
+        ConnectorDeploymentStatus status) {
+
+        return async(
+            () -> {
+                LOGGER.info("Update connector status: cluster_id={}, deployment_id={}, status={}",
+                    clusterId,
+                    deploymentId,
+                    Serialization.asJson(status));
+
+                return controlPlaneAsync.updateConnectorDeploymentStatus(clusterId, deploymentId, status);
+            },
+            config.manager().async().connectorStatusTimeout());
+    }
+
+    /**
+     * Asynchronously update the status of a connector namespace.
+     *
+     * @param  clusterId   the cluster id.
+     * @param  namespaceId the namespace id.
+     * @param  status      the status.
+     * @return             a stage completed once the status has been updated, or completed exceptionally with a
+     *                     {@link FleetManagerClientException}.
+     */
+    public CompletionStage<Void> updateNamespaceStatusAsync(
+        String clusterId,
+        String namespaceId,
+        ConnectorNamespaceDeploymentStatus status) {
+
+        return async(
+            () -> {
+                LOGGER.info("Update namespace status: cluster_id={}, namespace_id={}, status={}",
+                    clusterId,
+                    namespaceId,
+                    Serialization.asJson(status));
+
+                return controlPlaneAsync.updateConnectorNamespaceStatus(clusterId, namespaceId, status);
+            },
+            config.manager().async().namespaceStatusTimeout());
+    }
+
+    private <T> CompletionStage<T> async(Supplier<CompletionStage<T>> call, Duration timeout) {
+        final CompletableFuture<T> answer = new CompletableFuture<>();
+        final long permit;
+
+        try {
+            permit = acquire();
+        } catch (FleetManagerUnavailableException e) {
+            answer.completeExceptionally(e);
+            return answer;
+        }
+
+        try {
+            call.get()
+                .toCompletableFuture()
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        FleetManagerClientException failure = RestClientHelper.wrap(e);
+                        release(permit, failure);
+                        answer.completeExceptionally(failure);
+                    } else {
+                        release(permit, null);
+                        answer.complete(result);
+                    }
+                });
+        } catch (Exception e) {
+            FleetManagerClientException failure = RestClientHelper.wrap(e);
+            release(permit, failure);
+            answer.completeExceptionally(failure);
+        }
+
+        return answer;
+    }
+
     public void updateNamespaceStatus(String clusterId, String namespaceId, ConnectorNamespaceDeploymentStatus status) {
-        RestClientHelper.run(() -> {
+        guarded(() -> {
             LOGGER.info("Update namespace status: cluster_id={}, namespace_id={}, status={}",
                 clusterId,
                 namespaceId,
@@ -145,7 +712,7 @@ public class FleetManagerClient {
     }
 
     public void updateClusterStatus(ConnectorClusterStatus status) {
-        RestClientHelper.run(() -> {
+        guarded(() -> {
             LOGGER.info("Update cluster status: cluster_id={}, status={}",
                 config.cluster().id(),
                 Serialization.asJson(status));
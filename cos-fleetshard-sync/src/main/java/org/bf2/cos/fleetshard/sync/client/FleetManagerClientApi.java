@@ -12,6 +12,8 @@
 
 package org.bf2.cos.fleetshard.sync.client;
 
+import java.io.InputStream;
+
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
 import javax.ws.rs.PUT;
@@ -32,6 +34,7 @@ import org.bf2.cos.fleet.manager.model.ConnectorNamespaceDeploymentList;
 import org.bf2.cos.fleet.manager.model.ConnectorNamespaceDeploymentStatus;
 
 public interface FleetManagerClientApi {
+    String APPLICATION_JSON_STREAM_WATCH = "application/json;stream=watch";
 
     /**
      * Returns a list of connector deployments assigned to the cluster.
@@ -57,6 +60,32 @@ public interface FleetManagerClientApi {
         @QueryParam("gt_version") Long gtVersion)
         throws ApiException, ProcessingException;
 
+    /**
+     * Returns a list of connector deployments assigned to the cluster as a raw stream, to be decoded incrementally.
+     */
+    @GET
+    @Path("/kafka_connector_clusters/{connector_cluster_id}/deployments")
+    @Produces(MediaType.APPLICATION_JSON)
+    InputStream streamConnectorDeployments(
+        @PathParam("connector_cluster_id") String connectorClusterId,
+        @QueryParam("page") String page,
+        @QueryParam("size") String size,
+        @QueryParam("gt_version") Long gtVersion)
+        throws ApiException, ProcessingException;
+
+    /**
+     * Watch for changes to the connector deployments assigned to the cluster and return them as a stream of watch
+     * events.
+     */
+    @GET
+    @Path("/kafka_connector_clusters/{connector_cluster_id}/deployments")
+    @Produces(APPLICATION_JSON_STREAM_WATCH)
+    InputStream watchConnectorDeployments(
+        @PathParam("connector_cluster_id") String connectorClusterId,
+        @QueryParam("gt_version") Long gtVersion,
+        @QueryParam("watch") String watch)
+        throws ApiException, ProcessingException;
+
     /**
      * Returns a connector namespace assigned to the cluster.
      */
@@ -81,6 +110,19 @@ public interface FleetManagerClientApi {
         @QueryParam("gt_version") Long gtVersion)
         throws ApiException, ProcessingException;
 
+    /**
+     * Watch for changes to the connector namespaces assigned to the cluster and return them as a stream of watch
+     * events. Not part of the Control Plane API spec yet, as it requires a Control Plane that is not released.
+     */
+    @GET
+    @Path("/kafka_connector_clusters/{connector_cluster_id}/namespaces")
+    @Produces(APPLICATION_JSON_STREAM_WATCH)
+    InputStream watchConnectorNamespaces(
+        @PathParam("connector_cluster_id") String connectorClusterId,
+        @QueryParam("gt_version") Long gtVersion,
+        @QueryParam("watch") String watch)
+        throws ApiException, ProcessingException;
+
     /**
      * Update the status of a connector deployment
      */
@@ -0,0 +1,43 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.util.concurrent.CompletionStage;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.bf2.cos.fleet.manager.model.ConnectorDeploymentStatus;
+import org.bf2.cos.fleet.manager.model.ConnectorNamespaceDeploymentStatus;
+
+/**
+ * Asynchronous variant of the {@link FleetManagerClientApi} endpoints that are invoked at high volume.
+ */
+public interface FleetManagerClientAsyncApi {
+
+    /**
+     * Update the status of a connector deployment
+     */
+    @PUT
+    @Path("/kafka_connector_clusters/{connector_cluster_id}/deployments/{deployment_id}/status")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    CompletionStage<Void> updateConnectorDeploymentStatus(
+        @PathParam("connector_cluster_id") String connectorClusterId,
+        @PathParam("deployment_id") String deploymentId,
+        ConnectorDeploymentStatus connectorDeploymentStatus);
+
+    /**
+     * Update the status of a connector namespace
+     */
+    @PUT
+    @Path("/kafka_connector_clusters/{connector_cluster_id}/namespaces/{namespace_id}/status")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    CompletionStage<Void> updateConnectorNamespaceStatus(
+        @PathParam("connector_cluster_id") String connectorClusterId,
+        @PathParam("namespace_id") String namespaceId,
+        ConnectorNamespaceDeploymentStatus connectorNamespaceStatus);
+}
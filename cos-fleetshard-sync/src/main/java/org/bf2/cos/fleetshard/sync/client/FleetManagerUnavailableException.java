@@ -0,0 +1,12 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+/**
+ * Thrown when a request to the Control Plane is rejected locally, either because the circuit breaker is open or
+ * because the retry budget is exhausted. No request has reached the Control Plane, and the operation should not be
+ * retried right away.
+ */
+public class FleetManagerUnavailableException extends FleetManagerClientException {
+    public FleetManagerUnavailableException(String message) {
+        super(message);
+    }
+}
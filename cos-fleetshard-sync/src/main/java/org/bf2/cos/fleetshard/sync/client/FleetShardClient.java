@@ -1,9 +1,27 @@
 package org.bf2.cos.fleetshard.sync.client;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -13,7 +31,10 @@ import org.bf2.cos.fleetshard.api.ManagedConnector;
 import org.bf2.cos.fleetshard.api.ManagedConnectorCluster;
 import org.bf2.cos.fleetshard.api.ManagedConnectorClusterBuilder;
 import org.bf2.cos.fleetshard.api.ManagedConnectorClusterSpecBuilder;
+import org.bf2.cos.fleetshard.api.ManagedConnectorClusterStatus;
 import org.bf2.cos.fleetshard.api.ManagedConnectorOperator;
+import org.bf2.cos.fleetshard.api.Operator;
+import org.bf2.cos.fleetshard.support.OperatorIndex;
 import org.bf2.cos.fleetshard.support.Service;
 import org.bf2.cos.fleetshard.support.resources.Clusters;
 import org.bf2.cos.fleetshard.support.resources.Connectors;
@@ -22,46 +43,162 @@ import org.bf2.cos.fleetshard.support.resources.Resources;
 import org.bf2.cos.fleetshard.support.resources.Secrets;
 import org.bf2.cos.fleetshard.support.watch.Informers;
 import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
+import org.bf2.cos.fleetshard.sync.sharding.ShardManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.fabric8.kubernetes.api.model.DeletionPropagation;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.Namespace;
 import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.dsl.Resource;
 import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
 import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
 import io.fabric8.kubernetes.client.informers.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @ApplicationScoped
 public class FleetShardClient implements Service {
     private static final Logger LOGGER = LoggerFactory.getLogger(FleetShardClient.class);
 
+    public static final String METRICS_WRITES = "resources.writes";
+    public static final String METRICS_WRITES_AVOIDED = "resources.writes.avoided";
+    public static final String TAG_KIND = "kind";
+    public static final String METRICS_INFORMER_SYNC = "informers.sync";
+    public static final String TAG_INFORMER = "informer";
+
+    private static final Duration INFORMER_SYNC_POLL = Duration.ofMillis(50);
+    // key of the hold put on the deployments revision by the checkpoint, never a valid deployment id
+    private static final String CHECKPOINT_KEY = "";
+
     @Inject
     KubernetesClient kubernetesClient;
     @Inject
     FleetShardSyncConfig config;
+    @Inject
+    MeterRegistry registry;
+    @Inject
+    ShardManager shards;
 
     private volatile SharedIndexInformer<ManagedConnector> connectorsInformer;
     private volatile SharedIndexInformer<ManagedConnectorOperator> operatorsInformer;
     private volatile SharedIndexInformer<Namespace> namespaceInformers;
+    private volatile SharedIndexInformer<Secret> secretsInformer;
+    private volatile SharedIndexInformer<Secret> pullSecretInformer;
+
+    private volatile RevisionWatermark<ManagedConnector> deploymentsRevision;
+    private volatile RevisionWatermark<Namespace> namespacesRevision;
+    private volatile ManagedConnectorClusterStatus checkpoint;
+
+    // the connectors informer is replaced when the shards are rebalanced, hence the handlers are retained so they can
+    // be registered again to the new informer
+    private final List<ResourceEventHandler<ManagedConnector>> connectorHandlers = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong operatorsRevision = new AtomicLong();
+    private volatile IndexedOperators indexedOperators;
 
     @SuppressWarnings("PMD.DoNotTerminateVM")
     @Override
     public void start() throws Exception {
         LOGGER.info("Starting FleetShardClient");
 
-        operatorsInformer = kubernetesClient.resources(ManagedConnectorOperator.class)
-            .inNamespace(config.namespace())
-            .inform();
-        namespaceInformers = kubernetesClient.namespaces()
-            .withLabel(Resources.LABEL_CLUSTER_ID, getClusterId())
-            .inform();
-        connectorsInformer = kubernetesClient.resources(ManagedConnector.class)
-            .inAnyNamespace()
-            .withLabel(Resources.LABEL_CLUSTER_ID, getClusterId())
-            .inform();
+        deploymentsRevision = new RevisionWatermark<>(
+            FleetShardClient::getDeploymentResourceRevision,
+            () -> connectorsInformer.getIndexer().list());
+        namespacesRevision = new RevisionWatermark<>(
+            FleetShardClient::getNamespaceResourceRevision,
+            () -> namespaceInformers.getIndexer().list().stream()
+                .filter(this::isOwned)
+                .collect(Collectors.toList()));
+
+        // seed the watermarks with the checkpoint recorded by a previous run, so incremental polling can resume
+        // right away, unless the sharded mode is enabled as the recorded revisions are shared by all the replicas
+        checkpoint = shards.isEnabled()
+            ? new ManagedConnectorClusterStatus()
+            : getConnectorCluster()
+                .map(ManagedConnectorCluster::getStatus)
+                .orElseGet(ManagedConnectorClusterStatus::new);
+
+        if (checkpoint.getDeploymentsResourceVersion() != null) {
+            deploymentsRevision.update(checkpoint.getDeploymentsResourceVersion());
+            // the checkpoint is a low-water mark: deployments above it may have failed before the restart, so the
+            // revision is held at the checkpoint until the deployments above it have been polled again
+            deploymentsRevision.failed(CHECKPOINT_KEY, checkpoint.getDeploymentsResourceVersion() + 1);
+        }
+        if (checkpoint.getNamespacesResourceVersion() != null) {
+            namespacesRevision.update(checkpoint.getNamespacesResourceVersion());
+        }
+
+        if (shards.isEnabled()) {
+            labelUnshardedResources();
+        }
+
+        // the informers are started concurrently, and the client is started only once all of them have filled their
+        // caches, so the services relying on the caches never observe a partial view of the cluster
+        final ExecutorService executor = Executors.newFixedThreadPool(5);
+
+        try {
+            final var operators = inform(executor, "operators", () -> kubernetesClient
+                .resources(ManagedConnectorOperator.class)
+                .inNamespace(config.namespace())
+                .inform());
+            final var namespaces = inform(executor, "namespaces", () -> kubernetesClient
+                .namespaces()
+                .withLabel(Resources.LABEL_CLUSTER_ID, getClusterId())
+                .inform());
+            final var connectors = inform(executor, "connectors", this::informConnectors);
+            final var secrets = inform(executor, "secrets", this::informSecrets);
+            final var pullSecret = inform(executor, "pullsecret", () -> kubernetesClient
+                .secrets()
+                .inNamespace(config.namespace())
+                .withName(config.imagePullSecretsName())
+                .inform());
+
+            try {
+                CompletableFuture.allOf(operators, namespaces, connectors, secrets, pullSecret)
+                    .get(config.resources().informerSyncTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                // release the informers that have been started, including those completing after the timeout
+                for (var informer : List.of(operators, namespaces, connectors, secrets, pullSecret)) {
+                    informer.thenAccept(Resources::closeQuietly);
+                }
+
+                throw new IllegalStateException(
+                    "Informers could not be synced within " + config.resources().informerSyncTimeout(),
+                    e);
+            }
+
+            operatorsInformer = operators.join();
+            namespaceInformers = namespaces.join();
+            connectorsInformer = connectors.join();
+            secretsInformer = secrets.join();
+            pullSecretInformer = pullSecret.join();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        operatorsInformer.addEventHandler(new ResourceEventHandler<>() {
+            @Override
+            public void onAdd(ManagedConnectorOperator obj) {
+                operatorsRevision.incrementAndGet();
+            }
+
+            @Override
+            public void onUpdate(ManagedConnectorOperator oldObj, ManagedConnectorOperator newObj) {
+                operatorsRevision.incrementAndGet();
+            }
+
+            @Override
+            public void onDelete(ManagedConnectorOperator obj, boolean deletedFinalStateUnknown) {
+                operatorsRevision.incrementAndGet();
+            }
+        });
+        watchConnectors(deploymentsRevision);
+        namespaceInformers.addEventHandler(Informers.filter(this::isOwned, namespacesRevision));
 
         operatorsInformer.stopped().whenComplete((unused, throwable) -> {
             if (throwable != null) {
@@ -75,19 +212,226 @@ public class FleetShardClient implements Service {
                 System.exit(-1);
             }
         });
-        connectorsInformer.stopped().whenComplete((unused, throwable) -> {
+        pullSecretInformer.stopped().whenComplete((unused, throwable) -> {
             if (throwable != null) {
-                LOGGER.warn("Connectors informer has stopped working, exiting", throwable);
+                LOGGER.warn("Pull secret informer has stopped working, exiting", throwable);
                 System.exit(-1);
             }
         });
     }
 
+    /**
+     * @return true if all the informers have been started and have filled their caches.
+     */
+    public boolean isSynced() {
+        return Stream.of(operatorsInformer, namespaceInformers, connectorsInformer, secretsInformer, pullSecretInformer)
+            .allMatch(informer -> informer != null && informer.hasSynced());
+    }
+
     @Override
     public void stop() throws Exception {
+        connectorHandlers.clear();
+
         Resources.closeQuietly(operatorsInformer);
         Resources.closeQuietly(namespaceInformers);
         Resources.closeQuietly(connectorsInformer);
+        Resources.closeQuietly(secretsInformer);
+        Resources.closeQuietly(pullSecretInformer);
+    }
+
+    /**
+     * Replace the connectors and secrets informers with informers filtered by the shards currently owned by this
+     * replica. The connectors handlers are registered to the new informer, which replays the connectors it holds,
+     * and are notified about the deletion of the connectors that belong to the shards that are not owned anymore.
+     */
+    public synchronized void reshard() {
+        final SharedIndexInformer<ManagedConnector> oldConnectors = connectorsInformer;
+        final SharedIndexInformer<Secret> oldSecrets = secretsInformer;
+
+        if (oldConnectors == null || oldSecrets == null) {
+            return;
+        }
+
+        LOGGER.info("Resharding informers (shards: {})", shards.getOwnedShards());
+
+        final SharedIndexInformer<ManagedConnector> connectors = informConnectors();
+        final SharedIndexInformer<Secret> secrets = informSecrets();
+
+        secretsInformer = secrets;
+        connectorsInformer = connectors;
+
+        connectorHandlers.forEach(connectors::addEventHandler);
+
+        final Set<String> retained = Set.copyOf(connectors.getIndexer().listKeys());
+
+        for (ManagedConnector connector : oldConnectors.getIndexer().list()) {
+            if (!retained.contains(Cache.metaNamespaceKeyFunc(connector))) {
+                connectorHandlers.forEach(h -> h.onDelete(connector, false));
+            }
+        }
+
+        Resources.closeQuietly(oldConnectors);
+        Resources.closeQuietly(oldSecrets);
+    }
+
+    private <T> CompletableFuture<SharedIndexInformer<T>> inform(
+        ExecutorService executor,
+        String name,
+        Supplier<SharedIndexInformer<T>> supplier) {
+
+        return CompletableFuture.supplyAsync(() -> {
+            final Timer.Sample sample = Timer.start(registry);
+            final SharedIndexInformer<T> answer = supplier.get();
+
+            try {
+                while (!answer.hasSynced()) {
+                    Thread.sleep(INFORMER_SYNC_POLL.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Resources.closeQuietly(answer);
+
+                throw new IllegalStateException("Interrupted while waiting for the " + name + " informer to sync", e);
+            }
+
+            final long elapsed = sample.stop(
+                Timer.builder(config.metrics().baseName() + "." + METRICS_INFORMER_SYNC)
+                    .tag(TAG_INFORMER, name)
+                    .register(registry));
+
+            LOGGER.info("Informer {} synced in {}ms (items: {})",
+                name,
+                TimeUnit.NANOSECONDS.toMillis(elapsed),
+                answer.getIndexer().list().size());
+
+            return answer;
+        }, executor);
+    }
+
+    /**
+     * Label the connectors and the secrets provisioned before the sharded mode was enabled with the shard of their
+     * connector namespace, as otherwise they would be filtered out by the informers until they are provisioned again.
+     * Once all the resources have been labelled, this is a no-op.
+     */
+    private void labelUnshardedResources() {
+        final Map<String, String> namespaceIds = new HashMap<>();
+
+        for (Namespace ns : kubernetesClient.namespaces()
+            .withLabel(Resources.LABEL_CLUSTER_ID, getClusterId())
+            .list()
+            .getItems()) {
+
+            final String id = Resources.getLabel(ns, Resources.LABEL_NAMESPACE_ID);
+            if (id != null) {
+                namespaceIds.put(ns.getMetadata().getName(), id);
+            }
+        }
+
+        int labelled = 0;
+
+        for (ManagedConnector connector : kubernetesClient.resources(ManagedConnector.class)
+            .inAnyNamespace()
+            .withLabel(Resources.LABEL_CLUSTER_ID, getClusterId())
+            .withoutLabel(Resources.LABEL_SHARD)
+            .list()
+            .getItems()) {
+
+            final String id = namespaceIds.get(connector.getMetadata().getNamespace());
+            if (id != null) {
+                kubernetesClient.resources(ManagedConnector.class)
+                    .inNamespace(connector.getMetadata().getNamespace())
+                    .withName(connector.getMetadata().getName())
+                    .edit(c -> {
+                        shards.label(c, id);
+                        return c;
+                    });
+
+                labelled++;
+            }
+        }
+
+        for (Secret secret : kubernetesClient.secrets()
+            .inAnyNamespace()
+            .withLabel(Resources.LABEL_CLUSTER_ID, getClusterId())
+            .withoutLabel(Resources.LABEL_SHARD)
+            .list()
+            .getItems()) {
+
+            final String id = namespaceIds.get(secret.getMetadata().getNamespace());
+            if (id != null) {
+                kubernetesClient.secrets()
+                    .inNamespace(secret.getMetadata().getNamespace())
+                    .withName(secret.getMetadata().getName())
+                    .edit(s -> {
+                        shards.label(s, id);
+                        return s;
+                    });
+
+                labelled++;
+            }
+        }
+
+        if (labelled > 0) {
+            LOGGER.info("Labelled {} resources provisioned before the sharded mode was enabled", labelled);
+        }
+    }
+
+    @SuppressWarnings("PMD.DoNotTerminateVM")
+    private SharedIndexInformer<ManagedConnector> informConnectors() {
+        var connectors = kubernetesClient.resources(ManagedConnector.class)
+            .inAnyNamespace()
+            .withLabel(Resources.LABEL_CLUSTER_ID, getClusterId());
+
+        if (shards.isEnabled()) {
+            connectors = connectors.withLabelIn(Resources.LABEL_SHARD, ownedShards());
+        }
+
+        final SharedIndexInformer<ManagedConnector> answer = connectors.inform();
+
+        answer.stopped().whenComplete((unused, throwable) -> {
+            if (throwable != null) {
+                LOGGER.warn("Connectors informer has stopped working, exiting", throwable);
+                System.exit(-1);
+            }
+        });
+
+        return answer;
+    }
+
+    @SuppressWarnings("PMD.DoNotTerminateVM")
+    private SharedIndexInformer<Secret> informSecrets() {
+        var secrets = kubernetesClient.secrets()
+            .inAnyNamespace()
+            .withLabel(Resources.LABEL_CLUSTER_ID, getClusterId());
+
+        if (shards.isEnabled()) {
+            secrets = secrets.withLabelIn(Resources.LABEL_SHARD, ownedShards());
+        }
+
+        final SharedIndexInformer<Secret> answer = secrets.inform();
+
+        answer.stopped().whenComplete((unused, throwable) -> {
+            if (throwable != null) {
+                LOGGER.warn("Secrets informer has stopped working, exiting", throwable);
+                System.exit(-1);
+            }
+        });
+
+        return answer;
+    }
+
+    private String[] ownedShards() {
+        final Set<String> owned = shards.getOwnedShards();
+
+        // a set based selector requires at least one value, so a value no resource is labelled with is used when
+        // no shard is owned
+        return owned.isEmpty()
+            ? new String[] { "none" }
+            : owned.toArray(String[]::new);
+    }
+
+    private boolean isOwned(Namespace namespace) {
+        return shards.owns(Resources.getLabel(namespace, Resources.LABEL_NAMESPACE_ID));
     }
 
     public String getClusterId() {
@@ -99,24 +443,118 @@ public class FleetShardClient implements Service {
     }
 
     public long getMaxDeploymentResourceRevision() {
-        return this.connectorsInformer.getIndexer().list().stream()
-            .mapToLong(c -> c.getSpec().getDeployment().getDeploymentResourceVersion())
-            .max()
-            .orElse(0);
+        return this.deploymentsRevision.get();
     }
 
     public long getMaxNamespaceResourceRevision() {
-        return this.namespaceInformers.getIndexer().list().stream()
-            .mapToLong(c -> {
-                String rv = Resources.getAnnotation(c, Resources.ANNOTATION_NAMESPACE_RESOURCE_VERSION);
-                if (rv == null) {
-                    return 0;
-                }
+        return this.namespacesRevision.get();
+    }
+
+    /**
+     * Record that a deployment could not be provisioned, so the deployments revision does not move past it until it
+     * is provisioned successfully.
+     *
+     * @param deployment the deployment.
+     */
+    public void deploymentFailed(ConnectorDeployment deployment) {
+        deploymentsRevision.failed(deployment.getId(), deployment.getMetadata().getResourceVersion());
+    }
+
+    /**
+     * Record that a deployment has been provisioned.
+     *
+     * @param deployment the deployment.
+     */
+    public void deploymentApplied(ConnectorDeployment deployment) {
+        deploymentsRevision.applied(deployment.getId(), deployment.getMetadata().getResourceVersion());
+    }
 
-                return Long.parseLong(rv);
-            })
-            .max()
-            .orElse(0);
+    /**
+     * Release the hold the checkpoint puts on the deployments revision, once the deployments above the checkpoint
+     * have been polled again.
+     */
+    public void releaseCheckpoint() {
+        deploymentsRevision.applied(CHECKPOINT_KEY, Long.MAX_VALUE);
+    }
+
+    /**
+     * Forget the deployments that could not be provisioned, as all the deployments are about to be provisioned again.
+     */
+    public void clearDeploymentFailures() {
+        deploymentsRevision.clearFailures();
+    }
+
+    /**
+     * @return the time of the last full resync recorded by a previous run, if any, and only if the revisions it has
+     *         been recorded with are known as well, so the caller can resume incremental polling from the recorded
+     *         revisions.
+     */
+    public Optional<Instant> getCheckpointedResync() {
+        final ManagedConnectorClusterStatus current = checkpoint;
+
+        if (current == null
+            || current.getLastResyncTime() == null
+            || current.getDeploymentsResourceVersion() == null
+            || current.getNamespacesResourceVersion() == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(Instant.parse(current.getLastResyncTime()));
+        } catch (DateTimeParseException e) {
+            LOGGER.warn("Ignoring invalid last resync time {}", current.getLastResyncTime());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Record the current revisions and the time of the last full resync in the {@link ManagedConnectorCluster}
+     * status, so they can be used as a starting point by a restarted synchronizer. The deployments revision is the
+     * highest revision below which every deployment has been applied, not the highest one seen.
+     *
+     * @param lastResync the time of the last full resync.
+     */
+    public void updateCheckpoint(Instant lastResync) {
+        if (shards.isEnabled()) {
+            // each replica only knows the revisions of its own shards
+            return;
+        }
+
+        final ManagedConnectorClusterStatus status = new ManagedConnectorClusterStatus();
+        status.setDeploymentsResourceVersion(getMaxDeploymentResourceRevision());
+        status.setNamespacesResourceVersion(getMaxNamespaceResourceRevision());
+
+        if (lastResync != null) {
+            status.setLastResyncTime(lastResync.toString());
+        }
+
+        if (Objects.equals(status, checkpoint)) {
+            return;
+        }
+
+        getConnectorCluster().ifPresent(cluster -> {
+            cluster.setStatus(status);
+
+            kubernetesClient.resources(ManagedConnectorCluster.class)
+                .inNamespace(cluster.getMetadata().getNamespace())
+                .withName(cluster.getMetadata().getName())
+                .patchStatus(cluster);
+
+            checkpoint = status;
+        });
+    }
+
+    private static long getDeploymentResourceRevision(ManagedConnector connector) {
+        return connector.getSpec().getDeployment().getDeploymentResourceVersion();
+    }
+
+    private static long getNamespaceResourceRevision(Namespace namespace) {
+        String rv = Resources.getAnnotation(namespace, Resources.ANNOTATION_NAMESPACE_RESOURCE_VERSION);
+        if (rv == null) {
+            return 0;
+        }
+
+        return Long.parseLong(rv);
     }
 
     // *************************************
@@ -133,6 +571,18 @@ public class FleetShardClient implements Service {
                 .get());
     }
 
+    /**
+     * Lookup a namespace by name in the informers cache.
+     *
+     * @param  name the name of the namespace.
+     * @return      the namespace.
+     */
+    public Optional<Namespace> getCachedNamespace(String name) {
+        return namespaceInformers != null
+            ? Optional.ofNullable(namespaceInformers.getIndexer().getByKey(name))
+            : Optional.empty();
+    }
+
     public List<Namespace> getNamespaces() {
         return namespaceInformers != null
             ? namespaceInformers.getIndexer().list()
@@ -172,8 +622,17 @@ public class FleetShardClient implements Service {
     }
 
     public Namespace createNamespace(Namespace namespace) {
-        return this.kubernetesClient.namespaces()
-            .createOrReplace(namespace);
+        final Namespace answer = apply(
+            namespace,
+            namespaceInformers != null
+                ? namespaceInformers.getIndexer().getByKey(namespace.getMetadata().getName())
+                : null,
+            this.kubernetesClient.namespaces()
+                .withName(namespace.getMetadata().getName()));
+
+        namespacesRevision.update(answer);
+
+        return answer;
     }
 
     // *************************************
@@ -183,10 +642,12 @@ public class FleetShardClient implements Service {
     // *************************************
 
     public Secret createSecret(Secret secret) {
-        return this.kubernetesClient.secrets()
-            .inNamespace(secret.getMetadata().getNamespace())
-            .withName(secret.getMetadata().getName())
-            .createOrReplace(secret);
+        return apply(
+            secret,
+            getCachedSecret(secret.getMetadata().getNamespace(), secret.getMetadata().getName()),
+            this.kubernetesClient.secrets()
+                .inNamespace(secret.getMetadata().getNamespace())
+                .withName(secret.getMetadata().getName()));
     }
 
     public Optional<Secret> getSecret(ConnectorDeployment deployment) {
@@ -195,7 +656,23 @@ public class FleetShardClient implements Service {
             deployment.getId());
     }
 
+    /**
+     * Lookup a secret. Secrets labelled with the cluster id and the addon pull secret are served from the informers
+     * cache, any other secret is retrieved from the API server.
+     *
+     * @param  id the secret id.
+     * @return    the secret
+     */
     public Optional<Secret> getSecret(NamespacedName id) {
+        Secret answer = getCachedSecret(id.getNamespace(), id.getName());
+        if (answer != null) {
+            return Optional.of(answer);
+        }
+
+        if (isPullSecret(id.getNamespace(), id.getName())) {
+            return Optional.empty();
+        }
+
         return Optional.ofNullable(
             kubernetesClient.secrets()
                 .inNamespace(id.getNamespace())
@@ -204,11 +681,32 @@ public class FleetShardClient implements Service {
     }
 
     public Optional<Secret> getSecret(String namespaceId, String deploymentId) {
+        if (secretsInformer == null) {
+            throw new IllegalStateException("Informer must be started before adding handlers");
+        }
+
         return Optional.ofNullable(
-            kubernetesClient.secrets()
-                .inNamespace(generateNamespaceId(namespaceId))
-                .withName(Secrets.generateConnectorSecretId(deploymentId))
-                .get());
+            getCachedSecret(
+                generateNamespaceId(namespaceId),
+                Secrets.generateConnectorSecretId(deploymentId)));
+    }
+
+    private Secret getCachedSecret(String namespace, String name) {
+        final String key = Cache.namespaceKeyFunc(namespace, name);
+
+        if (isPullSecret(namespace, name)) {
+            return pullSecretInformer != null
+                ? pullSecretInformer.getIndexer().getByKey(key)
+                : null;
+        }
+
+        return secretsInformer != null
+            ? secretsInformer.getIndexer().getByKey(key)
+            : null;
+    }
+
+    private boolean isPullSecret(String namespace, String name) {
+        return Objects.equals(config.namespace(), namespace) && Objects.equals(config.imagePullSecretsName(), name);
     }
 
     // *************************************
@@ -274,26 +772,31 @@ public class FleetShardClient implements Service {
     }
 
     public void watchConnectors(Consumer<ManagedConnector> handler) {
-        if (connectorsInformer == null) {
-            throw new IllegalStateException("Informer must be started before adding handlers");
-        }
-
-        connectorsInformer.addEventHandler(Informers.wrap(handler));
+        watchConnectors(Informers.wrap(handler));
     }
 
-    public void watchConnectors(ResourceEventHandler<ManagedConnector> handler) {
+    public synchronized void watchConnectors(ResourceEventHandler<ManagedConnector> handler) {
         if (connectorsInformer == null) {
             throw new IllegalStateException("Informer must be started before adding handlers");
         }
 
+        connectorHandlers.add(handler);
         connectorsInformer.addEventHandler(handler);
     }
 
     public ManagedConnector createConnector(ManagedConnector connector) {
-        return kubernetesClient.resources(ManagedConnector.class)
-            .inNamespace(connector.getMetadata().getNamespace())
-            .withName(connector.getMetadata().getName())
-            .createOrReplace(connector);
+        final ManagedConnector answer = apply(
+            connector,
+            connectorsInformer != null
+                ? connectorsInformer.getIndexer().getByKey(Cache.metaNamespaceKeyFunc(connector))
+                : null,
+            kubernetesClient.resources(ManagedConnector.class)
+                .inNamespace(connector.getMetadata().getNamespace())
+                .withName(connector.getMetadata().getName()));
+
+        deploymentsRevision.update(answer);
+
+        return answer;
     }
 
     public String generateConnectorId(String namespaceId) {
@@ -312,6 +815,38 @@ public class FleetShardClient implements Service {
             : Collections.emptyList();
     }
 
+    /**
+     * Provides an index of the known operators, which is rebuilt only when the operators have changed since the last
+     * invocation.
+     *
+     * @return the operators index.
+     */
+    public OperatorIndex getOperatorIndex() {
+        // the revision must be read before the operators are listed, so a change happening while the index is being
+        // rebuilt triggers yet another rebuild
+        final long revision = operatorsRevision.get();
+        final IndexedOperators current = indexedOperators;
+
+        if (current != null && current.revision == revision) {
+            return current.index;
+        }
+
+        final List<Operator> operators = getOperators().stream()
+            .map(mco -> new Operator(
+                mco.getMetadata().getName(),
+                mco.getSpec().getType(),
+                mco.getSpec().getVersion()))
+            .collect(Collectors.toList());
+
+        final OperatorIndex index = current != null
+            ? current.index.update(operators)
+            : OperatorIndex.of(operators);
+
+        indexedOperators = new IndexedOperators(revision, index);
+
+        return index;
+    }
+
     // *************************************
     //
     // Cluster
@@ -344,4 +879,53 @@ public class FleetShardClient implements Service {
                 .createOrReplace(cluster);
         });
     }
+
+    // *************************************
+    //
+    // Apply
+    //
+    // *************************************
+
+    /**
+     * Write the desired resource unless the current one already matches it.
+     *
+     * @param  desired  the desired resource
+     * @param  current  the current resource as known by the cluster, if any.
+     * @param  resource the resource to write to.
+     * @return          the resulting resource.
+     */
+    private <T extends HasMetadata> T apply(T desired, T current, Resource<T> resource) {
+        final String kind = HasMetadata.getKind(desired.getClass());
+
+        if (!ResourceDiff.hasChanges(desired, current)) {
+            LOGGER.debug("Skipping write of {} {}/{} as it is up to date",
+                kind,
+                desired.getMetadata().getNamespace(),
+                desired.getMetadata().getName());
+
+            counter(METRICS_WRITES_AVOIDED, kind).increment();
+
+            return current;
+        }
+
+        counter(METRICS_WRITES, kind).increment();
+
+        return resource.createOrReplace(desired);
+    }
+
+    private Counter counter(String id, String kind) {
+        return Counter.builder(config.metrics().baseName() + "." + id)
+            .tag(TAG_KIND, kind)
+            .register(registry);
+    }
+
+    private static final class IndexedOperators {
+        final long revision;
+        final OperatorIndex index;
+
+        IndexedOperators(long revision, OperatorIndex index) {
+            this.revision = revision;
+            this.index = index;
+        }
+    }
 }
@@ -0,0 +1,96 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.time.Duration;
+
+/**
+ * Tunes the page size used to list resources on the Control Plane so that the time needed to retrieve a page stays
+ * close to a target latency and, when the size of the responses is known, a page does not exceed a target number of
+ * bytes.
+ * </p>
+ * The cost and the size of a single item are estimated out of the observed pages with exponentially weighted moving
+ * averages, and the page size is the largest one satisfying both targets. Since changing the page size while iterating
+ * would shift the page offsets, the size returned by {@link #get()} is meant to be used for a whole listing.
+ */
+class PageSizeTuner {
+    private static final double SMOOTHING = 0.3;
+
+    private final int min;
+    private final int max;
+    private final double target;
+    private final double targetBytes;
+
+    private volatile int size;
+    private volatile double itemCost;
+    private volatile double itemBytes;
+
+    PageSizeTuner(int initial, int min, int max, Duration target) {
+        this(initial, min, max, target, 0);
+    }
+
+    PageSizeTuner(int initial, int min, int max, Duration target, long targetBytes) {
+        this.min = Math.max(1, min);
+        this.max = Math.max(this.min, max);
+        this.target = target.toNanos();
+        this.targetBytes = targetBytes;
+        this.size = clamp(initial);
+        this.itemCost = -1;
+        this.itemBytes = -1;
+    }
+
+    /**
+     * @return the page size to use.
+     */
+    int get() {
+        return size;
+    }
+
+    /**
+     * Record the retrieval of a page whose size in bytes is not known.
+     *
+     * @param latency the time taken to retrieve the page.
+     * @param items   the number of items in the page.
+     */
+    void record(Duration latency, int items) {
+        record(latency, items, -1);
+    }
+
+    /**
+     * Record the retrieval of a page.
+     *
+     * @param latency the time taken to retrieve the page.
+     * @param items   the number of items in the page.
+     * @param bytes   the size of the page in bytes, negative if not known.
+     */
+    synchronized void record(Duration latency, int items, long bytes) {
+        if (items <= 0) {
+            return;
+        }
+
+        itemCost = average(itemCost, (double) latency.toNanos() / items);
+
+        if (bytes >= 0) {
+            itemBytes = average(itemBytes, (double) bytes / items);
+        }
+
+        long answer = max;
+
+        if (itemCost > 0) {
+            answer = Math.min(answer, (long) (target / itemCost));
+        }
+        if (targetBytes > 0 && itemBytes > 0) {
+            answer = Math.min(answer, (long) (targetBytes / itemBytes));
+        }
+
+        size = clamp(answer);
+    }
+
+    private static double average(double current, double value) {
+        return current < 0
+            ? value
+            : SMOOTHING * value + (1 - SMOOTHING) * current;
+    }
+
+    private int clamp(long value) {
+        return (int) Math.min(max, Math.max(min, value));
+    }
+}
@@ -0,0 +1,132 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Fetches the pages of a Control Plane list in order while prefetching up to a fixed number of pages in the background,
+ * so that the network round trips to the Control Plane overlap with the provisioning of the current page.
+ *
+ * @param <T> the type of the items
+ */
+class PagedRequest<T> {
+
+    @FunctionalInterface
+    interface PageFetcher<T> {
+        /**
+         * @param  page      the page number, starting from 1.
+         * @return           the requested page.
+         * @throws Exception if the page cannot be retrieved.
+         */
+        Page<T> fetch(int page) throws Exception;
+    }
+
+    static class Page<T> {
+        final List<T> items;
+        final long total;
+
+        Page(List<T> items, long total) {
+            this.items = items;
+            this.total = total;
+        }
+
+        boolean isEmpty() {
+            return items == null || items.isEmpty();
+        }
+    }
+
+    private final ExecutorService executor;
+    private final int prefetch;
+    private final Timer waitTimer;
+    private final Timer provisionTimer;
+
+    PagedRequest(ExecutorService executor, int prefetch, Timer waitTimer, Timer provisionTimer) {
+        this.executor = executor;
+        this.prefetch = Math.max(0, prefetch);
+        this.waitTimer = waitTimer;
+        this.provisionTimer = provisionTimer;
+    }
+
+    /**
+     * Iterate over all the pages, invoking the consumer for each non-empty page in page order.
+     *
+     * @param  fetcher   the function used to retrieve a single page.
+     * @param  consumer  the consumer of the items of each page.
+     * @return           the number of items consumed.
+     * @throws Exception if a page cannot be retrieved or consumed.
+     */
+    long run(PageFetcher<T> fetcher, Consumer<List<T>> consumer) throws Exception {
+        final Deque<Future<Page<T>>> pending = new ArrayDeque<>(prefetch);
+
+        long count = 0;
+        int next = 1;
+
+        try {
+            Page<T> page = fetch(fetcher, next++);
+
+            // The page size is not known upfront, but the Control Plane returns full pages except for the last one
+            // hence the size of the first page and the total are enough to determine how many pages are to be fetched.
+            final long pageSize = page.isEmpty() ? 0 : page.items.size();
+            final long pages = pageSize == 0 ? 0 : (page.total + pageSize - 1) / pageSize;
+
+            while (!page.isEmpty()) {
+                while (pending.size() < prefetch && next <= pages) {
+                    final int number = next++;
+                    pending.add(executor.submit(() -> fetcher.fetch(number)));
+                }
+
+                final List<T> items = page.items;
+                provisionTimer.record(() -> consumer.accept(items));
+
+                count += items.size();
+
+                if (count >= page.total) {
+                    break;
+                }
+
+                page = pending.isEmpty()
+                    ? fetch(fetcher, next++)
+                    : await(pending.poll());
+            }
+        } finally {
+            for (Future<Page<T>> future : pending) {
+                future.cancel(true);
+            }
+        }
+
+        return count;
+    }
+
+    private Page<T> fetch(PageFetcher<T> fetcher, int page) throws Exception {
+        final long start = System.nanoTime();
+
+        try {
+            return fetcher.fetch(page);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Page<T> await(Future<Page<T>> future) throws Exception {
+        final long start = System.nanoTime();
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.utils.Serialization;
+
+/**
+ * Determines if writing a desired resource would actually change what is stored in the cluster.
+ * </p>
+ * The comparison follows the same semantic of an apply: every field set on the desired resource must have the same
+ * value on the current one, while fields that are only present on the current resource (i.e. fields defaulted by the
+ * API server or owned by other controllers) are ignored. Metadata maintained by the API server and the status are not
+ * taken into account.
+ * </p>
+ * Labels and annotations are the exception, as a write replaces them as a whole: they must be equal, so that a label
+ * or an annotation removed from the desired resource is detected. Keys owned by the platform (i.e. in the
+ * kubernetes.io or openshift.io domains) are ignored as they are maintained by the cluster.
+ */
+final class ResourceDiff {
+    private static final Set<String> IGNORED_FIELDS = Set.of(
+        "apiVersion",
+        "kind",
+        "status");
+    private static final Set<String> IGNORED_METADATA_FIELDS = Set.of(
+        "resourceVersion",
+        "managedFields",
+        "generation",
+        "creationTimestamp",
+        "deletionTimestamp",
+        "deletionGracePeriodSeconds",
+        "uid",
+        "selfLink");
+    private static final Set<String> EXACT_METADATA_FIELDS = Set.of(
+        "labels",
+        "annotations");
+    private static final Set<String> PLATFORM_DOMAINS = Set.of(
+        "kubernetes.io",
+        "openshift.io");
+
+    private ResourceDiff() {
+    }
+
+    /**
+     * @param  desired the desired resource.
+     * @param  current the resource as known by the cluster, may be null.
+     * @return         true if writing the desired resource is required.
+     */
+    static boolean hasChanges(HasMetadata desired, HasMetadata current) {
+        if (current == null || current == desired) {
+            return true;
+        }
+
+        final JsonNode desiredNode = normalize(desired);
+        final JsonNode currentNode = normalize(current);
+
+        for (String field : EXACT_METADATA_FIELDS) {
+            if (!Objects.equals(keys(desiredNode, field), keys(currentNode, field))) {
+                return true;
+            }
+        }
+
+        return !contains(desiredNode, currentNode);
+    }
+
+    static JsonNode normalize(HasMetadata resource) {
+        ObjectNode node = Serialization.jsonMapper().valueToTree(resource);
+        node.remove(IGNORED_FIELDS);
+
+        JsonNode meta = node.get("metadata");
+        if (meta instanceof ObjectNode) {
+            ((ObjectNode) meta).remove(IGNORED_METADATA_FIELDS);
+        }
+
+        return node;
+    }
+
+    static Map<String, String> keys(JsonNode resource, String field) {
+        final Map<String, String> answer = new TreeMap<>();
+
+        for (Iterator<Map.Entry<String, JsonNode>> it = resource.path("metadata").path(field).fields(); it.hasNext();) {
+            Map.Entry<String, JsonNode> entry = it.next();
+
+            if (!isPlatformKey(entry.getKey())) {
+                answer.put(entry.getKey(), entry.getValue().asText());
+            }
+        }
+
+        return answer;
+    }
+
+    static boolean isPlatformKey(String key) {
+        final int index = key.indexOf('/');
+        if (index < 0) {
+            return false;
+        }
+
+        final String domain = key.substring(0, index);
+
+        for (String platform : PLATFORM_DOMAINS) {
+            if (domain.equals(platform) || domain.endsWith("." + platform)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    static boolean contains(JsonNode desired, JsonNode current) {
+        if (desired == null || desired.isNull()) {
+            return true;
+        }
+        if (current == null || current.isNull()) {
+            // an empty container has the same meaning of a missing one
+            return desired.isContainerNode() && desired.isEmpty();
+        }
+        if (desired.isObject() && current.isObject()) {
+            for (Iterator<Map.Entry<String, JsonNode>> it = desired.fields(); it.hasNext();) {
+                Map.Entry<String, JsonNode> field = it.next();
+
+                if (!contains(field.getValue(), current.get(field.getKey()))) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        return Objects.equals(desired, current);
+    }
+}
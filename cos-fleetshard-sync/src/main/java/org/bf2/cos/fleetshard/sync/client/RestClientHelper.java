@@ -2,6 +2,8 @@ package org.bf2.cos.fleetshard.sync.client;
 
 import java.net.ConnectException;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.WebApplicationException;
@@ -17,48 +19,51 @@ public class RestClientHelper {
     public static <T extends Throwable> void run(ThrowingRunnable<T> runnable) {
         try {
             runnable.run();
-        } catch (WebApplicationException e) {
-            final Response response = e.getResponse();
+        } catch (Throwable e) {
+            throw wrap(e);
+        }
+    }
+
+    /**
+     * Translate the failure of a request to a {@link FleetManagerClientException}, unwrapping the exceptions added by
+     * the asynchronous machinery.
+     *
+     * @param  e the failure.
+     * @return   the translated exception.
+     */
+    public static FleetManagerClientException wrap(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+            && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        if (cause instanceof FleetManagerClientException) {
+            return (FleetManagerClientException) cause;
+        }
+        if (cause instanceof WebApplicationException) {
+            final Response response = ((WebApplicationException) cause).getResponse();
 
             LOGGER.warn("error={}, status={}, message={}",
                 response.hasEntity() ? response.readEntity(String.class) : "undefined",
                 response.getStatus(),
-                e.getMessage());
+                cause.getMessage());
 
-            throw new FleetManagerClientException(e, response.getStatus());
-        } catch (ProcessingException e) {
-            if (e.getCause() instanceof ConnectException) {
-                LOGGER.warn("{}", e.getMessage());
-                throw new FleetManagerClientException(e.getMessage(), e);
-            } else {
-                throw new FleetManagerClientException(e);
-            }
-        } catch (Throwable e) {
-            throw new FleetManagerClientException(e);
+            return new FleetManagerClientException(cause, response.getStatus());
         }
+        if (cause instanceof ProcessingException && cause.getCause() instanceof ConnectException) {
+            LOGGER.warn("{}", cause.getMessage());
+            return new FleetManagerClientException(cause.getMessage(), cause);
+        }
+
+        return new FleetManagerClientException(cause);
     }
 
     public static <T> T call(Callable<T> callable) {
         try {
             return callable.call();
-        } catch (WebApplicationException e) {
-            final Response response = e.getResponse();
-
-            LOGGER.warn("error={}, status={}, message={}",
-                response.hasEntity() ? response.readEntity(String.class) : "undefined",
-                response.getStatus(),
-                e.getMessage());
-
-            throw new FleetManagerClientException(e, response.getStatus());
-        } catch (ProcessingException e) {
-            if (e.getCause() instanceof ConnectException) {
-                LOGGER.warn("{}", e.getMessage());
-                throw new FleetManagerClientException(e.getMessage(), e);
-            } else {
-                throw new FleetManagerClientException(e);
-            }
         } catch (Throwable e) {
-            throw new FleetManagerClientException(e);
+            throw wrap(e);
         }
     }
 }
@@ -0,0 +1,69 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.time.Duration;
+
+/**
+ * Bounds the number of retries against the Control Plane to a fraction of the requests performed, so that retries
+ * cannot multiply the load on the Control Plane while it is struggling.
+ * </p>
+ * Each request deposits a fraction of a token and each retry withdraws a token. The budget is also replenished by
+ * one token at a fixed interval, so that retries are eventually allowed even when no other request is performed.
+ */
+class RetryBudget {
+    private final double ratio;
+    private final double maxTokens;
+    private final long refillInterval;
+
+    private double tokens;
+    private long lastRefill;
+
+    RetryBudget(double ratio, int maxTokens, Duration refillInterval) {
+        this.ratio = Math.max(0, ratio);
+        this.maxTokens = Math.max(1, maxTokens);
+        this.refillInterval = refillInterval.toNanos();
+        this.tokens = this.maxTokens;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Record a request.
+     */
+    synchronized void deposit() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * Try to withdraw a token for a retry.
+     *
+     * @return true if the retry is allowed.
+     */
+    synchronized boolean tryRetry() {
+        refill();
+
+        if (tokens < 1) {
+            return false;
+        }
+
+        tokens -= 1;
+        return true;
+    }
+
+    synchronized double getTokens() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        if (refillInterval <= 0) {
+            return;
+        }
+
+        final long now = System.nanoTime();
+        final long periods = (now - lastRefill) / refillInterval;
+
+        if (periods > 0) {
+            tokens = Math.min(maxTokens, tokens + periods);
+            lastRefill += periods * refillInterval;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+
+/**
+ * Keeps track of the highest Control Plane revision among the resources held by an informer, updating it as informer
+ * events are received instead of scanning the whole cache each time it is needed.
+ * </p>
+ * The cache is scanned only when the resource holding the highest revision is removed or moved back to a lower
+ * revision, which are both rare events.
+ * </p>
+ * As resources are not necessarily applied in revision order, a revision that failed to be applied holds the
+ * watermark right below it until a revision of the same resource is applied, so that a lower revision that failed is
+ * not skipped by the next incremental poll because a higher one succeeded.
+ *
+ * @param <T> the type of the resource
+ */
+class RevisionWatermark<T> implements ResourceEventHandler<T> {
+    private final AtomicLong revision;
+    private final ToLongFunction<T> extractor;
+    private final Supplier<Collection<T>> items;
+    private final Map<String, Long> failures;
+
+    RevisionWatermark(ToLongFunction<T> extractor, Supplier<Collection<T>> items) {
+        this.revision = new AtomicLong();
+        this.extractor = extractor;
+        this.items = items;
+        this.failures = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return the highest revision below which every revision has been applied.
+     */
+    long get() {
+        long answer = revision.get();
+
+        for (long failure : failures.values()) {
+            answer = Math.min(answer, failure - 1);
+        }
+
+        return answer;
+    }
+
+    /**
+     * Record that a revision of a resource could not be applied.
+     *
+     * @param key      the key of the resource.
+     * @param revision the revision.
+     */
+    void failed(String key, long revision) {
+        failures.merge(key, revision, Math::min);
+    }
+
+    /**
+     * Record that a revision of a resource has been applied, which clears the failures of the same or of lower
+     * revisions of the resource.
+     *
+     * @param key      the key of the resource.
+     * @param revision the revision.
+     */
+    void applied(String key, long revision) {
+        failures.computeIfPresent(key, (k, failure) -> revision >= failure ? null : failure);
+    }
+
+    /**
+     * Forget all the recorded failures, i.e. because all the resources are about to be applied again.
+     */
+    void clearFailures() {
+        failures.clear();
+    }
+
+    /**
+     * Raise the watermark to the given revision, if higher than the current one.
+     *
+     * @param value the revision.
+     */
+    void update(long value) {
+        revision.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Raise the watermark to the revision of the given resource, if higher than the current one.
+     *
+     * @param resource the resource.
+     */
+    void update(T resource) {
+        if (resource != null) {
+            update(extractor.applyAsLong(resource));
+        }
+    }
+
+    @Override
+    public void onAdd(T obj) {
+        update(obj);
+    }
+
+    @Override
+    public void onUpdate(T oldObj, T newObj) {
+        final long oldRevision = extractor.applyAsLong(oldObj);
+        final long newRevision = extractor.applyAsLong(newObj);
+
+        if (newRevision < oldRevision && oldRevision == revision.get()) {
+            recompute();
+        } else {
+            update(newRevision);
+        }
+    }
+
+    @Override
+    public void onDelete(T obj, boolean deletedFinalStateUnknown) {
+        if (obj == null || extractor.applyAsLong(obj) == revision.get()) {
+            recompute();
+        }
+    }
+
+    private void recompute() {
+        final long current = revision.get();
+        final long max = items.get().stream().mapToLong(extractor).max().orElse(0);
+
+        // the watermark is lowered only if it has not been raised while the cache was scanned, as a concurrent update
+        // supersedes the outcome of the scan
+        if (!revision.compareAndSet(current, max)) {
+            update(max);
+        }
+    }
+}
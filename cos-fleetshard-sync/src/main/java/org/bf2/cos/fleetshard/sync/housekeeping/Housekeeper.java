@@ -50,7 +50,7 @@ public class Housekeeper implements Service {
 
         scheduler.schedule(
             JOB_ID,
-            HousekeeperJob.class,
+            this::run,
             config.resources().housekeeperInterval());
     }
 
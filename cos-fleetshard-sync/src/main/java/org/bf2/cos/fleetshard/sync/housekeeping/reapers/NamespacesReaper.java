@@ -1,7 +1,12 @@
 package org.bf2.cos.fleetshard.sync.housekeeping.reapers;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.Collection;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -10,26 +15,44 @@ import org.bf2.cos.fleetshard.api.ManagedConnector;
 import org.bf2.cos.fleetshard.support.Service;
 import org.bf2.cos.fleetshard.support.resources.Namespaces;
 import org.bf2.cos.fleetshard.support.resources.Resources;
-import org.bf2.cos.fleetshard.support.watch.Informers;
+import org.bf2.cos.fleetshard.sync.FleetShardSyncScheduler;
 import org.bf2.cos.fleetshard.sync.client.FleetShardClient;
 import org.bf2.cos.fleetshard.sync.housekeeping.Housekeeper;
+import org.bf2.cos.fleetshard.sync.sharding.ShardManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.fabric8.kubernetes.api.model.Namespace;
-
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+
+/**
+ * Deletes the connector namespaces that have been marked as deleted.
+ * </p>
+ * Each namespace event is evaluated on its own: a namespace whose state moved to deleted is queued for deletion right
+ * away, while a namespace with an expiration is queued to be checked again once it expires. The queue is drained by a
+ * short periodic job, and the periodic housekeeping run only acts as a safety net for missed events.
+ */
 @ApplicationScoped
 public class NamespacesReaper implements Housekeeper.Task, Service {
     private static final Logger LOGGER = LoggerFactory.getLogger(NamespacesReaper.class);
 
     public static final String ID = "namespace.reaper";
 
+    private static final String JOB_ID = "cos.namespaces.reaper";
+    private static final Duration DRAIN_INTERVAL = Duration.ofSeconds(1);
+
     private final FleetShardClient fleetShardClient;
+    private final ShardManager shards;
+    private final FleetShardSyncScheduler scheduler;
+    private final ReapQueue<String> queue;
     private final AtomicBoolean running;
     private final AtomicBoolean taskRunning;
 
-    public NamespacesReaper(FleetShardClient fleetShardClient) {
+    public NamespacesReaper(FleetShardClient fleetShardClient, ShardManager shards, FleetShardSyncScheduler scheduler) {
         this.fleetShardClient = fleetShardClient;
+        this.shards = shards;
+        this.scheduler = scheduler;
+        this.queue = new ReapQueue<>();
         this.running = new AtomicBoolean();
         this.taskRunning = new AtomicBoolean();
     }
@@ -42,12 +65,34 @@ public class NamespacesReaper implements Housekeeper.Task, Service {
     @Override
     public void start() throws Exception {
         this.running.set(true);
-        this.fleetShardClient.watchNamespaces(Informers.wrap(ns -> run()));
+        this.fleetShardClient.watchNamespaces(new ResourceEventHandler<>() {
+            @Override
+            public void onAdd(Namespace namespace) {
+                evaluate(namespace);
+            }
+
+            @Override
+            public void onUpdate(Namespace oldNamespace, Namespace newNamespace) {
+                evaluate(newNamespace);
+            }
+
+            @Override
+            public void onDelete(Namespace namespace, boolean deletedFinalStateUnknown) {
+                queue.remove(namespace.getMetadata().getName());
+            }
+        });
+
+        this.scheduler.schedule(
+            JOB_ID,
+            this::drain,
+            DRAIN_INTERVAL,
+            FleetShardSyncScheduler.Mode.FIXED_DELAY);
     }
 
     @Override
     public void stop() throws Exception {
         this.running.set(false);
+        this.scheduler.shutdownQuietly(JOB_ID);
     }
 
     @Override
@@ -63,14 +108,87 @@ public class NamespacesReaper implements Housekeeper.Task, Service {
 
     private void doRun() {
         for (Namespace ns : fleetShardClient.getNamespaces()) {
-            String state = Resources.getLabel(ns, Resources.LABEL_NAMESPACE_STATE);
-
-            if (Objects.equals(Namespaces.PHASE_DELETED, state)) {
+            if (isCandidate(ns) && isDeleted(ns)) {
                 delete(ns);
             }
         }
     }
 
+    private void evaluate(Namespace ns) {
+        final String name = ns.getMetadata().getName();
+
+        if (!isCandidate(ns)) {
+            queue.remove(name);
+            return;
+        }
+
+        if (isDeleted(ns)) {
+            queue.schedule(name, Instant.now());
+            return;
+        }
+
+        // a namespace that has already expired is left to the periodic run, so that it is not checked again on
+        // every update
+        final Optional<Instant> expiration = expiration(ns).filter(Instant.now()::isBefore);
+        if (expiration.isPresent()) {
+            queue.schedule(name, expiration.get());
+        } else {
+            queue.remove(name);
+        }
+    }
+
+    private void drain() {
+        if (!running.get()) {
+            return;
+        }
+
+        final Instant now = Instant.now();
+
+        for (String name : queue.poll(now)) {
+            fleetShardClient.getCachedNamespace(name).filter(this::isCandidate).ifPresent(ns -> {
+                if (isDeleted(ns)) {
+                    delete(ns);
+                    return;
+                }
+
+                // the expiration may have been extended since the namespace has been queued
+                final Optional<Instant> expiration = expiration(ns).filter(now::isBefore);
+                if (expiration.isPresent()) {
+                    queue.schedule(name, expiration.get());
+                } else {
+                    LOGGER.info("Namespace {} has expired but is not deleted (id: {}, state: {}, expiration: {})",
+                        name,
+                        Resources.getLabel(ns, Resources.LABEL_NAMESPACE_ID),
+                        Resources.getLabel(ns, Resources.LABEL_NAMESPACE_STATE),
+                        Resources.getAnnotation(ns, Resources.ANNOTATION_NAMESPACE_EXPIRATION));
+                }
+            });
+        }
+    }
+
+    private boolean isCandidate(Namespace ns) {
+        return ns.getMetadata().getDeletionTimestamp() == null
+            && shards.owns(Resources.getLabel(ns, Resources.LABEL_NAMESPACE_ID));
+    }
+
+    private static boolean isDeleted(Namespace ns) {
+        return Objects.equals(Namespaces.PHASE_DELETED, Resources.getLabel(ns, Resources.LABEL_NAMESPACE_STATE));
+    }
+
+    private static Optional<Instant> expiration(Namespace ns) {
+        final String expiration = Resources.getAnnotation(ns, Resources.ANNOTATION_NAMESPACE_EXPIRATION);
+        if (expiration == null || expiration.isBlank()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(OffsetDateTime.parse(expiration).toInstant());
+        } catch (DateTimeParseException e) {
+            LOGGER.debug("Unable to parse expiration {} of namespace {}", expiration, ns.getMetadata().getName());
+            return Optional.empty();
+        }
+    }
+
     private void delete(Namespace ns) {
         Collection<ManagedConnector> connectors = fleetShardClient.getConnectors(ns);
 
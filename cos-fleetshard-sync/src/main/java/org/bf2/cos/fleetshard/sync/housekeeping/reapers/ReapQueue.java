@@ -0,0 +1,96 @@
+package org.bf2.cos.fleetshard.sync.housekeeping.reapers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * A queue of keys, each one due at a given time. A key is queued at most once, at the last time it has been scheduled
+ * at, and is handed over once it is due.
+ *
+ * @param <K> the type of the keys
+ */
+class ReapQueue<K> {
+    private final Map<K, Instant> due;
+    private final PriorityQueue<Entry<K>> entries;
+
+    ReapQueue() {
+        this.due = new HashMap<>();
+        this.entries = new PriorityQueue<>(Comparator.comparing(e -> e.at));
+    }
+
+    /**
+     * Schedule a key, replacing the time it is already scheduled at, if any, so that it can be either brought forward
+     * or postponed.
+     *
+     * @param key the key.
+     * @param at  the time the key is due at.
+     */
+    synchronized void schedule(K key, Instant at) {
+        final Instant current = due.put(key, at);
+
+        if (!at.equals(current)) {
+            // the entry scheduled at the previous time, if any, is left in place and discarded when polled
+            entries.add(new Entry<>(key, at));
+        }
+    }
+
+    /**
+     * Discard a key, if queued.
+     *
+     * @param key the key.
+     */
+    synchronized void remove(K key) {
+        due.remove(key);
+    }
+
+    synchronized int size() {
+        return due.size();
+    }
+
+    /**
+     * Remove the keys that are due from the queue.
+     *
+     * @param  now the current time.
+     * @return     the due keys, in the order they became due.
+     */
+    synchronized List<K> poll(Instant now) {
+        List<K> answer = null;
+
+        for (Entry<K> head = entries.peek(); head != null && !head.at.isAfter(now); head = entries.peek()) {
+            entries.poll();
+
+            // stale entries of keys that have been removed or rescheduled are discarded
+            if (head.at.equals(due.get(head.key))) {
+                due.remove(head.key);
+
+                if (answer == null) {
+                    answer = new ArrayList<>();
+                }
+
+                answer.add(head.key);
+            }
+        }
+
+        if (due.isEmpty()) {
+            entries.clear();
+        }
+
+        return answer != null ? answer : Collections.emptyList();
+    }
+
+    private static final class Entry<K> {
+        final K key;
+        final Instant at;
+
+        Entry(K key, Instant at) {
+            this.key = key;
+            this.at = at;
+        }
+    }
+}
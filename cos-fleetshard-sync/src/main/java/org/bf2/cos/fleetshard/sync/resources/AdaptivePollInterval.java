@@ -0,0 +1,77 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Computes the delay between two polls of the Control Plane, shrinking it towards a floor while polls keep returning
+ * changes and stretching it towards a ceiling after consecutive empty polls.
+ */
+public class AdaptivePollInterval {
+    private final long floor;
+    private final long ceiling;
+    private final double jitter;
+
+    private volatile long interval;
+    private volatile int emptyStreak;
+
+    public AdaptivePollInterval(Duration initial, Duration floor, Duration ceiling, double jitter) {
+        this.floor = floor.toMillis();
+        this.ceiling = Math.max(this.floor, ceiling.toMillis());
+        this.jitter = Math.min(1.0, Math.max(0.0, jitter));
+        this.interval = clamp(initial.toMillis());
+        this.emptyStreak = 0;
+    }
+
+    /**
+     * Record the outcome of a poll.
+     *
+     * @param changes the number of resources returned by the Control Plane.
+     */
+    public synchronized void record(long changes) {
+        if (changes > 0) {
+            emptyStreak = 0;
+            interval = clamp(interval / 2);
+        } else {
+            emptyStreak++;
+
+            // a single empty poll is expected right after a burst, stretch only if nothing changes for a while
+            if (emptyStreak > 1) {
+                interval = clamp(interval * 2);
+            }
+        }
+    }
+
+    /**
+     * @return the current interval, without jitter.
+     */
+    public Duration getInterval() {
+        return Duration.ofMillis(interval);
+    }
+
+    /**
+     * @return the number of consecutive polls that returned no changes.
+     */
+    public int getEmptyStreak() {
+        return emptyStreak;
+    }
+
+    /**
+     * @return the delay before the next poll, i.e. the current interval randomly spread by the configured jitter so
+     *         that many clusters do not poll the Control Plane in lockstep.
+     */
+    public Duration next() {
+        final long current = interval;
+        final long spread = (long) (current * jitter);
+
+        if (spread == 0) {
+            return Duration.ofMillis(current);
+        }
+
+        return Duration.ofMillis(current - spread + ThreadLocalRandom.current().nextLong(2 * spread + 1));
+    }
+
+    private long clamp(long value) {
+        return Math.min(ceiling, Math.max(floor, value));
+    }
+}
@@ -0,0 +1,226 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import org.bf2.cos.fleet.manager.model.ConnectorNamespaceDeploymentStatus;
+import org.bf2.cos.fleet.manager.model.ConnectorNamespaceState;
+import org.bf2.cos.fleetshard.api.ManagedConnector;
+import org.bf2.cos.fleetshard.support.resources.Namespaces;
+import org.bf2.cos.fleetshard.support.resources.Resources;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+
+/**
+ * Maintains the namespaces section of the cluster status incrementally out of namespaces and connectors events, so
+ * that the status does not have to be recomputed by scanning all the namespaces and connectors on every update.
+ * </p>
+ * Each change that affects the aggregated status bumps a revision, which can be used to detect if the status has
+ * changed since it was last reported.
+ * </p>
+ * In sharded mode the connectors of a namespace are only known by the replica owning it, which publishes their number
+ * on the namespace with the {@link Resources#ANNOTATION_NAMESPACE_CONNECTORS} annotation, so that it can be reported
+ * by the replica in charge of the cluster status.
+ */
+class ClusterStatusAggregator {
+    private final Map<String, NamespaceState> namespaces;
+    private final Map<String, String> connectors;
+    private final Map<String, Integer> counts;
+
+    private long revision;
+
+    ClusterStatusAggregator() {
+        this.namespaces = new HashMap<>();
+        this.connectors = new HashMap<>();
+        this.counts = new HashMap<>();
+    }
+
+    synchronized long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Record a namespace that has been added or updated.
+     *
+     * @param namespace the namespace.
+     */
+    synchronized void namespaceUpdated(Namespace namespace) {
+        final NamespaceState state = new NamespaceState(
+            Resources.getLabel(namespace, Resources.LABEL_NAMESPACE_ID),
+            Resources.getLabel(namespace, Resources.LABEL_KUBERNETES_VERSION),
+            phase(namespace),
+            connectors(namespace));
+
+        if (!state.equals(namespaces.put(namespace.getMetadata().getName(), state))) {
+            revision++;
+        }
+    }
+
+    /**
+     * Record a namespace that has been deleted.
+     *
+     * @param namespace the namespace.
+     */
+    synchronized void namespaceDeleted(Namespace namespace) {
+        if (namespaces.remove(namespace.getMetadata().getName()) != null) {
+            revision++;
+        }
+    }
+
+    /**
+     * Record a connector that has been added or updated.
+     *
+     * @param connector the connector.
+     */
+    synchronized void connectorUpdated(ManagedConnector connector) {
+        final String namespace = connector.getMetadata().getNamespace();
+
+        if (connectors.putIfAbsent(key(connector), namespace) == null) {
+            counts.merge(namespace, 1, Integer::sum);
+
+            if (namespaces.containsKey(namespace)) {
+                revision++;
+            }
+        }
+    }
+
+    /**
+     * Record a connector that has been deleted.
+     *
+     * @param connector the connector.
+     */
+    synchronized void connectorDeleted(ManagedConnector connector) {
+        final String namespace = connectors.remove(key(connector));
+
+        if (namespace != null) {
+            counts.computeIfPresent(namespace, (k, v) -> v > 1 ? v - 1 : null);
+
+            if (namespaces.containsKey(namespace)) {
+                revision++;
+            }
+        }
+    }
+
+    /**
+     * @return the status of the known namespaces.
+     */
+    List<ConnectorNamespaceDeploymentStatus> namespaces() {
+        return namespaces(id -> true);
+    }
+
+    /**
+     * @param  owned determine, by namespace id, if the connectors of a namespace are known locally or if the number
+     *               published on the namespace has to be used.
+     * @return       the status of the known namespaces.
+     */
+    synchronized List<ConnectorNamespaceDeploymentStatus> namespaces(Predicate<String> owned) {
+        final List<ConnectorNamespaceDeploymentStatus> answer = new ArrayList<>(namespaces.size());
+
+        for (Map.Entry<String, NamespaceState> entry : namespaces.entrySet()) {
+            final NamespaceState state = entry.getValue();
+            final int connectors = owned.test(state.id)
+                ? counts.getOrDefault(entry.getKey(), 0)
+                : Objects.requireNonNullElse(state.connectors, 0);
+
+            answer.add(new ConnectorNamespaceDeploymentStatus()
+                .id(state.id)
+                .version(state.version)
+                .connectorsDeployed(connectors)
+                .phase(state.phase));
+        }
+
+        return answer;
+    }
+
+    /**
+     * @param  owned determine, by namespace id, if the connectors of a namespace are known locally.
+     * @return       the number of connectors of the locally known namespaces that differs from the number published on
+     *               the namespace, by namespace name.
+     */
+    synchronized Map<String, Integer> unpublished(Predicate<String> owned) {
+        final Map<String, Integer> answer = new HashMap<>();
+
+        for (Map.Entry<String, NamespaceState> entry : namespaces.entrySet()) {
+            final NamespaceState state = entry.getValue();
+
+            if (state.id != null && owned.test(state.id)) {
+                final int connectors = counts.getOrDefault(entry.getKey(), 0);
+
+                if (!Objects.equals(connectors, state.connectors)) {
+                    answer.put(entry.getKey(), connectors);
+                }
+            }
+        }
+
+        return answer;
+    }
+
+    static ConnectorNamespaceState phase(Namespace namespace) {
+        if (namespace.getStatus() != null) {
+            if (Objects.equals(Namespaces.STATUS_ACTIVE, namespace.getStatus().getPhase())) {
+                return ConnectorNamespaceState.READY;
+            }
+            if (Objects.equals(Namespaces.STATUS_TERMINATING, namespace.getStatus().getPhase())) {
+                return ConnectorNamespaceState.DELETING;
+            }
+        }
+
+        return ConnectorNamespaceState.DISCONNECTED;
+    }
+
+    private static Integer connectors(Namespace namespace) {
+        final String value = Resources.getAnnotation(namespace, Resources.ANNOTATION_NAMESPACE_CONNECTORS);
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String key(ManagedConnector connector) {
+        return connector.getMetadata().getNamespace() + "/" + connector.getMetadata().getName();
+    }
+
+    private static final class NamespaceState {
+        final String id;
+        final String version;
+        final ConnectorNamespaceState phase;
+        final Integer connectors;
+
+        NamespaceState(String id, String version, ConnectorNamespaceState phase, Integer connectors) {
+            this.id = id;
+            this.version = version;
+            this.phase = phase;
+            this.connectors = connectors;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof NamespaceState)) {
+                return false;
+            }
+
+            NamespaceState that = (NamespaceState) o;
+            return Objects.equals(id, that.id)
+                && Objects.equals(version, that.version)
+                && phase == that.phase
+                && Objects.equals(connectors, that.connectors);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, version, phase, connectors);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.bf2.cos.fleetshard.sync.resources;
 
-import java.util.Objects;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -9,12 +11,11 @@ import org.bf2.cos.fleet.manager.model.ConnectorClusterPlatform;
 import org.bf2.cos.fleet.manager.model.ConnectorClusterState;
 import org.bf2.cos.fleet.manager.model.ConnectorClusterStatus;
 import org.bf2.cos.fleet.manager.model.ConnectorClusterStatusOperatorsInner;
-import org.bf2.cos.fleet.manager.model.ConnectorNamespaceDeploymentStatus;
-import org.bf2.cos.fleet.manager.model.ConnectorNamespaceState;
 import org.bf2.cos.fleet.manager.model.ConnectorOperator;
+import org.bf2.cos.fleetshard.api.ManagedConnector;
+import org.bf2.cos.fleetshard.support.OperatorIndex;
 import org.bf2.cos.fleetshard.support.Service;
 import org.bf2.cos.fleetshard.support.metrics.StaticMetricsRecorder;
-import org.bf2.cos.fleetshard.support.resources.Namespaces;
 import org.bf2.cos.fleetshard.support.resources.Operators;
 import org.bf2.cos.fleetshard.support.resources.Resources;
 import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
@@ -22,9 +23,15 @@ import org.bf2.cos.fleetshard.sync.FleetShardSyncScheduler;
 import org.bf2.cos.fleetshard.sync.client.FleetManagerClient;
 import org.bf2.cos.fleetshard.sync.client.FleetShardClient;
 import org.bf2.cos.fleetshard.sync.metrics.MetricsID;
+import org.bf2.cos.fleetshard.sync.sharding.ShardManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.micrometer.core.instrument.Counter;
+
 @ApplicationScoped
 public class ConnectorClusterStatusSync implements Service {
     private static final Logger LOGGER = LoggerFactory.getLogger(ConnectorClusterStatusSync.class);
@@ -40,18 +47,63 @@ public class ConnectorClusterStatusSync implements Service {
     FleetShardSyncConfig config;
     @Inject
     ConnectorClusterPlatform platform;
+    @Inject
+    ShardManager shards;
 
     @Inject
     @MetricsID(JOB_ID)
     StaticMetricsRecorder recorder;
+    @Inject
+    @MetricsID(JOB_ID + ".skipped")
+    Counter skipped;
+
+    private volatile ClusterStatusAggregator aggregator;
+    private volatile OperatorIndex reportedOperators;
+    private volatile long reportedRevision;
+    private volatile Instant reportedAt;
 
     @Override
     public void start() throws Exception {
         LOGGER.info("Starting connector status sync");
 
+        aggregator = new ClusterStatusAggregator();
+
+        fleetShardClient.watchNamespaces(new ResourceEventHandler<>() {
+            @Override
+            public void onAdd(Namespace namespace) {
+                aggregator.namespaceUpdated(namespace);
+            }
+
+            @Override
+            public void onUpdate(Namespace ignored, Namespace namespace) {
+                aggregator.namespaceUpdated(namespace);
+            }
+
+            @Override
+            public void onDelete(Namespace namespace, boolean deletedFinalStateUnknown) {
+                aggregator.namespaceDeleted(namespace);
+            }
+        });
+        fleetShardClient.watchConnectors(new ResourceEventHandler<>() {
+            @Override
+            public void onAdd(ManagedConnector connector) {
+                aggregator.connectorUpdated(connector);
+            }
+
+            @Override
+            public void onUpdate(ManagedConnector ignored, ManagedConnector connector) {
+                aggregator.connectorUpdated(connector);
+            }
+
+            @Override
+            public void onDelete(ManagedConnector connector, boolean deletedFinalStateUnknown) {
+                aggregator.connectorDeleted(connector);
+            }
+        });
+
         scheduler.schedule(
             JOB_ID,
-            ConnectorClusterStatusSyncJob.class,
+            this::run,
             config.resources().updateInterval());
     }
 
@@ -65,41 +117,78 @@ public class ConnectorClusterStatusSync implements Service {
     }
 
     private void update() {
+        if (shards.isEnabled()) {
+            publishConnectors();
+
+            // the cluster status is reported by a single replica
+            if (!shards.isCoordinator()) {
+                return;
+            }
+        }
+
+        final Instant now = Instant.now();
+        final Duration heartbeat = config.resources().clusterStatusHeartbeat();
+
+        // the revision must be read before the namespaces are, so a change happening while the status is being
+        // computed is reported by the next update
+        final long revision = aggregator.getRevision();
+        final OperatorIndex operators = fleetShardClient.getOperatorIndex();
+
+        if (reportedAt != null
+            && revision == reportedRevision
+            && operators == reportedOperators
+            && !heartbeat.isZero()
+            && Duration.between(reportedAt, now).compareTo(heartbeat) < 0) {
+
+            skipped.increment();
+            return;
+        }
+
         ConnectorClusterStatus status = new ConnectorClusterStatus();
         status.setPhase(ConnectorClusterState.READY);
         status.setPlatform(platform);
 
-        fleetShardClient.getOperators().stream().map(
+        operators.getOperators().stream().map(
             o -> new ConnectorClusterStatusOperatorsInner()
-                .namespace(o.getMetadata().getNamespace())
+                .namespace(config.namespace())
                 .operator(new ConnectorOperator()
-                    .id(o.getMetadata().getName())
-                    .type(o.getSpec().getType())
-                    .version(o.getSpec().getVersion()))
+                    .id(o.getId())
+                    .type(o.getType())
+                    .version(o.getVersion()))
                 .status(Operators.PHASE_READY))
             .forEach(
                 status::addOperatorsItem);
 
-        fleetShardClient.getNamespaces().stream().map(
-            n -> {
-                ConnectorNamespaceState phase = ConnectorNamespaceState.DISCONNECTED;
-                if (n.getStatus() != null) {
-                    if (Objects.equals(Namespaces.STATUS_ACTIVE, n.getStatus().getPhase())) {
-                        phase = ConnectorNamespaceState.READY;
-                    } else if (Objects.equals(Namespaces.STATUS_TERMINATING, n.getStatus().getPhase())) {
-                        phase = ConnectorNamespaceState.DELETING;
-                    }
-                }
-
-                return new ConnectorNamespaceDeploymentStatus()
-                    .id(n.getMetadata().getLabels().get(Resources.LABEL_NAMESPACE_ID))
-                    .version(Resources.getLabel(n, Resources.LABEL_KUBERNETES_VERSION))
-                    .connectorsDeployed(fleetShardClient.getConnectors(n).size())
-                    .phase(phase);
-            })
-            .forEach(
-                status::addNamespacesItem);
+        aggregator.namespaces(shards::owns).forEach(
+            status::addNamespacesItem);
 
         controlPlane.updateClusterStatus(status);
+
+        reportedRevision = revision;
+        reportedOperators = operators;
+        reportedAt = now;
+    }
+
+    /**
+     * Publish the number of connectors of the namespaces owned by this replica on the namespaces, so they can be
+     * reported by the replica in charge of the cluster status.
+     */
+    private void publishConnectors() {
+        final Map<String, Integer> unpublished = aggregator.unpublished(shards::owns);
+
+        unpublished.forEach((name, connectors) -> {
+            try {
+                fleetShardClient.getKubernetesClient()
+                    .namespaces()
+                    .withName(name)
+                    .edit(ns -> new NamespaceBuilder(ns)
+                        .editMetadata()
+                        .addToAnnotations(Resources.ANNOTATION_NAMESPACE_CONNECTORS, String.valueOf(connectors))
+                        .endMetadata()
+                        .build());
+            } catch (Exception e) {
+                LOGGER.warn("Failure publishing the number of connectors of namespace {}", name, e);
+            }
+        });
     }
 }
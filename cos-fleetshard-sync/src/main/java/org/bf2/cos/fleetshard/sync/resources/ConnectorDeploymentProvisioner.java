@@ -1,8 +1,23 @@
 package org.bf2.cos.fleetshard.sync.resources;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
@@ -17,7 +32,7 @@ import org.bf2.cos.fleetshard.api.ManagedConnector;
 import org.bf2.cos.fleetshard.api.Operator;
 import org.bf2.cos.fleetshard.api.OperatorSelector;
 import org.bf2.cos.fleetshard.api.SchemaRegistrySpec;
-import org.bf2.cos.fleetshard.support.OperatorSelectorUtil;
+import org.bf2.cos.fleetshard.support.OrderedExecutor;
 import org.bf2.cos.fleetshard.support.client.EventClient;
 import org.bf2.cos.fleetshard.support.metrics.MetricsRecorder;
 import org.bf2.cos.fleetshard.support.resources.Connectors;
@@ -27,16 +42,22 @@ import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
 import org.bf2.cos.fleetshard.sync.client.FleetManagerClient;
 import org.bf2.cos.fleetshard.sync.client.FleetShardClient;
 import org.bf2.cos.fleetshard.sync.metrics.MetricsID;
+import org.bf2.cos.fleetshard.sync.sharding.ShardManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 
 import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.utils.Serialization;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Tags;
 
+import static org.bf2.cos.fleetshard.support.resources.Resources.ANNOTATION_DEPLOYMENT_CHECKSUM;
 import static org.bf2.cos.fleetshard.support.resources.Resources.LABEL_CLUSTER_ID;
 import static org.bf2.cos.fleetshard.support.resources.Resources.LABEL_CONNECTOR_ID;
 import static org.bf2.cos.fleetshard.support.resources.Resources.LABEL_DEPLOYMENT_ID;
@@ -52,6 +73,7 @@ public class ConnectorDeploymentProvisioner {
     public static final String TAG_DEPLOYMENT_ID = "id";
     public static final String TAG_DEPLOYMENT_REVISION = "revision";
     public static final String METRICS_SUFFIX = "deployment.provision";
+    public static final String METRICS_SKIPPED = METRICS_SUFFIX + ".skipped";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ConnectorDeploymentProvisioner.class);
 
@@ -63,62 +85,187 @@ public class ConnectorDeploymentProvisioner {
     FleetShardSyncConfig config;
     @Inject
     EventClient eventClient;
+    @Inject
+    ShardManager shards;
+    @Inject
+    ConnectorStatusUpdater statusUpdater;
 
     @Inject
     @MetricsID(METRICS_SUFFIX)
     MetricsRecorder recorder;
+    @Inject
+    @MetricsID(METRICS_SKIPPED)
+    Counter skipped;
+
+    private ExecutorService workers;
+    private OrderedExecutor executor;
+
+    private final Map<String, Long> revisions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        final AtomicInteger counter = new AtomicInteger();
+
+        // the executor is used whatever the concurrency, as it is what serializes the revisions of a deployment handed
+        // over by the watch stream and by polling, which run on different threads
+        this.workers = Executors.newFixedThreadPool(Math.max(1, config.resources().provisionConcurrency()), r -> {
+            Thread answer = new Thread(r, "cos-deployments-provisioner-" + counter.incrementAndGet());
+            answer.setDaemon(true);
+            return answer;
+        });
+
+        this.executor = new OrderedExecutor(workers);
+    }
+
+    @PreDestroy
+    void destroy() {
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Poll the Control Plane for deployments with a revision greater than the given one and provision them.
+     *
+     * @param  revision the revision to start from.
+     * @return          the number of deployments that have been provisioned.
+     */
+    public long poll(long revision) {
+        final AtomicLong count = new AtomicLong();
 
-    public void poll(long revision) {
         fleetManager.getDeployments(
             revision,
-            this::provisionConnectors);
+            items -> {
+                provisionConnectors(items);
+                count.addAndGet(items.size());
+            });
+
+        return count.get();
+    }
+
+    void provisionConnectors(Collection<ConnectorDeployment> items) {
+        // in sharded mode, the deployments of the namespaces assigned to other replicas are left to them
+        final List<ConnectorDeployment> deployments = items.stream()
+            .filter(deployment -> shards.owns(deployment.getSpec().getNamespaceId()))
+            .collect(Collectors.toList());
+
+        // deployments are provisioned concurrently, but the revisions of a deployment are applied in order as tasks
+        // are serialized by deployment id
+        CompletableFuture.allOf(
+            deployments.stream()
+                .map(deployment -> executor.submit(deployment.getId(), () -> provisionConnector(deployment)))
+                .toArray(CompletableFuture[]::new))
+            .join();
     }
 
-    private void provisionConnectors(Collection<ConnectorDeployment> deployments) {
-        for (ConnectorDeployment deployment : deployments) {
-            this.recorder.record(
-                () -> provision(deployment),
-                Tags.of(TAG_DEPLOYMENT_ID, deployment.getId()),
-                e -> {
-                    LOGGER.error("Failure while trying to provision connector deployment: id={}, revision={}",
+    private void provisionConnector(ConnectorDeployment deployment) {
+        final long revision = deployment.getMetadata().getResourceVersion();
+        final Long applied = revisions.get(deployment.getId());
+
+        // a poll may hand over a revision older than the one the watch stream has already applied, which must not roll
+        // the deployment back
+        if (applied != null && applied > revision) {
+            LOGGER.debug("Skipping deployment_id: {}, resource_version: {} as resource_version: {} has been applied",
+                deployment.getId(),
+                revision,
+                applied);
+
+            skipped.increment();
+
+            return;
+        }
+
+        this.recorder.record(
+            () -> {
+                provision(deployment);
+                fleetShard.deploymentApplied(deployment);
+                revisions.merge(deployment.getId(), revision, Math::max);
+            },
+            Tags.of(TAG_DEPLOYMENT_ID, deployment.getId()),
+            e -> {
+                // deployments may be provisioned out of order, hence the failed revision must hold the revision
+                // incremental polls start from, or it would be skipped if a higher one succeeds
+                fleetShard.deploymentFailed(deployment);
+
+                LOGGER.error("Failure while trying to provision connector deployment: id={}, revision={}",
+                    deployment.getId(),
+                    deployment.getMetadata().getResourceVersion(),
+                    e);
+
+                try {
+                    MetaV1Condition condition = new MetaV1Condition();
+                    condition.setType(Conditions.TYPE_READY);
+                    condition.setStatus(Conditions.STATUS_FALSE);
+                    condition.setReason(Conditions.FAILED_TO_CREATE_OR_UPDATE_RESOURCE_REASON);
+                    condition.setMessage(e.getMessage());
+
+                    ConnectorDeploymentStatus status = new ConnectorDeploymentStatus();
+                    status.setResourceVersion(deployment.getMetadata().getResourceVersion());
+                    status.addConditionsItem(condition);
+
+                    // the failure bypasses the status updater, hence the last status it reported must be forgotten or a
+                    // following status equal to it would be skipped, leaving the failure on the Control Plane
+                    statusUpdater.invalidate(deployment.getId());
+
+                    // the failure is reported asynchronously so that provisioning is not held by the Control Plane
+                    fleetManager.updateConnectorStatusAsync(
+                        fleetShard.getClusterId(),
                         deployment.getId(),
-                        deployment.getMetadata().getResourceVersion(),
-                        e);
-
-                    try {
-                        MetaV1Condition condition = new MetaV1Condition();
-                        condition.setType(Conditions.TYPE_READY);
-                        condition.setStatus(Conditions.STATUS_FALSE);
-                        condition.setReason(Conditions.FAILED_TO_CREATE_OR_UPDATE_RESOURCE_REASON);
-                        condition.setMessage(e.getMessage());
-
-                        ConnectorDeploymentStatus status = new ConnectorDeploymentStatus();
-                        status.setResourceVersion(deployment.getMetadata().getResourceVersion());
-                        status.addConditionsItem(condition);
-
-                        fleetManager.updateConnectorStatus(
-                            fleetShard.getClusterId(),
+                        status).whenComplete((ignored, ex) -> {
+                            // a status reported while the failure was in flight is superseded by it
+                            statusUpdater.invalidate(deployment.getId());
+
+                            if (ex != null) {
+                                LOGGER.warn("Error wile reporting failure to the control plane", ex);
+                            }
+                        });
+                } catch (Exception ex) {
+                    LOGGER.warn("Error wile reporting failure to the control plane", e);
+                }
+
+                fleetShard.getConnectorCluster().ifPresent(cc -> {
+                    eventClient.broadcastWarning(
+                        "FailedToCreateOrUpdateResource",
+                        String.format("Unable to create or update deployment %s, revision: %s, reason: %s",
                             deployment.getId(),
-                            status);
-                    } catch (Exception ex) {
-                        LOGGER.warn("Error wile reporting failure to the control plane", e);
-                    }
-
-                    fleetShard.getConnectorCluster().ifPresent(cc -> {
-                        eventClient.broadcastWarning(
-                            "FailedToCreateOrUpdateResource",
-                            String.format("Unable to create or update deployment %s, revision: %s, reason: %s",
-                                deployment.getId(),
-                                deployment.getMetadata().getResourceVersion(),
-                                e.getMessage()),
-                            cc);
-                    });
+                            deployment.getMetadata().getResourceVersion(),
+                            e.getMessage()),
+                        cc);
                 });
-        }
+            });
     }
 
     public void provision(ConnectorDeployment deployment) {
-        final String uow = uid();
+        final String checksum = computeChecksum(deployment);
+        // the connector and the secret are retrieved from the informers cache, hence a copy is made to avoid altering
+        // the cached instances which are then used to determine if the resources need to be written
+        final Optional<ManagedConnector> currentConnector = fleetShard.getConnector(deployment)
+            .map(c -> Serialization.jsonMapper().convertValue(c, ManagedConnector.class));
+        final Optional<Secret> currentSecret = fleetShard.getSecret(deployment)
+            .map(c -> Serialization.jsonMapper().convertValue(c, Secret.class));
+
+        // keep the unit of work if the resources have already been provisioned out of the very same deployment, so
+        // a re-sync does not force the operator to re-apply the connector
+        final boolean connectorUpToDate = currentConnector.filter(c -> isUpToDate(c, deployment, checksum)).isPresent();
+        final String uow = connectorUpToDate
+            ? currentConnector.get().getSpec().getDeployment().getUnitOfWork()
+            : uid();
+        final boolean secretUpToDate = connectorUpToDate
+            && currentSecret.filter(s -> isUpToDate(s, deployment, checksum))
+                .filter(s -> Objects.equals(uow, Resources.getLabel(s, LABEL_UOW)))
+                .isPresent();
+
+        if (connectorUpToDate && secretUpToDate) {
+            LOGGER.debug("Skipping cluster_id: {}, deployment_id: {}, resource_version: {}, uow: {} as nothing has changed",
+                fleetShard.getClusterId(),
+                deployment.getId(),
+                deployment.getMetadata().getResourceVersion(),
+                uow);
+
+            skipped.increment();
+
+            return;
+        }
 
         LOGGER.info("Got cluster_id: {}, namespace_d: {}, connector_id: {}, deployment_id: {}, resource_version: {}, uow: {}",
             fleetShard.getClusterId(),
@@ -128,8 +275,10 @@ public class ConnectorDeploymentProvisioner {
             deployment.getMetadata().getResourceVersion(),
             uow);
 
-        final ManagedConnector connector = createManagedConnector(uow, deployment, null);
-        final Secret secret = createManagedConnectorSecret(uow, deployment, connector);
+        final ManagedConnector connector = connectorUpToDate
+            ? currentConnector.get()
+            : createManagedConnector(uow, checksum, deployment, currentConnector, null);
+        final Secret secret = createManagedConnectorSecret(uow, checksum, deployment, currentSecret, connector);
 
         LOGGER.info("CreateOrReplace - uow: {}, connector: {}/{}, secret: {}/{}",
             uow,
@@ -139,9 +288,66 @@ public class ConnectorDeploymentProvisioner {
             secret.getMetadata().getName());
     }
 
-    private ManagedConnector createManagedConnector(String uow, ConnectorDeployment deployment, HasMetadata owner) {
+    private static boolean isUpToDate(HasMetadata resource, ConnectorDeployment deployment, String checksum) {
+        return Objects.equals(checksum, Resources.getAnnotation(resource, ANNOTATION_DEPLOYMENT_CHECKSUM))
+            && Objects.equals(
+                "" + deployment.getMetadata().getResourceVersion(),
+                Resources.getLabel(resource, LABEL_DEPLOYMENT_RESOURCE_VERSION))
+            && Resources.getLabel(resource, LABEL_UOW) != null;
+    }
+
+    /**
+     * Compute a checksum of the deployment and of the configuration that ends up in the generated resources.
+     */
+    private String computeChecksum(ConnectorDeployment deployment) {
+        Checksum crc32 = new CRC32();
+
+        for (String entry : List.of(
+            deployment.getId(),
+            "" + deployment.getMetadata().getResourceVersion(),
+            canonicalJson(deployment.getSpec()))) {
+
+            byte[] v = entry.getBytes(StandardCharsets.UTF_8);
+            crc32.update(v, 0, v.length);
+        }
+
+        if (config != null) {
+            for (Map<String, String> entries : List.of(config.connectors().labels(), config.connectors().annotations())) {
+                entries.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey())
+                    .forEach(e -> {
+                        byte[] k = e.getKey().getBytes(StandardCharsets.UTF_8);
+                        byte[] v = e.getValue().getBytes(StandardCharsets.UTF_8);
+
+                        crc32.update(k, 0, k.length);
+                        crc32.update(v, 0, v.length);
+                    });
+            }
+        }
+
+        return Long.toHexString(crc32.getValue());
+    }
+
+    /**
+     * Serialize the given value out of its JSON tree, as the connector spec may be kept as raw JSON text by the
+     * streaming decode, which is not serialized like the equivalent tree.
+     */
+    private static String canonicalJson(Object value) {
+        try {
+            return Serialization.asJson(Serialization.jsonMapper().readTree(Serialization.asJson(value)));
+        } catch (JsonProcessingException e) {
+            throw KubernetesClientException.launderThrowable(e);
+        }
+    }
+
+    private ManagedConnector createManagedConnector(
+        String uow,
+        String checksum,
+        ConnectorDeployment deployment,
+        Optional<ManagedConnector> current,
+        HasMetadata owner) {
 
-        ManagedConnector connector = fleetShard.getConnector(deployment).orElseGet(() -> {
+        ManagedConnector connector = current.orElseGet(() -> {
             LOGGER.info(
                 "Connector not found (cluster_id: {}, namespace_id: {}, connector_id: {}, deployment_id: {}, resource_version: {}), creating a new one",
                 fleetShard.getClusterId(),
@@ -188,15 +394,8 @@ public class ConnectorDeploymentProvisioner {
             if (currentSelector != null && currentSelector.getId() != null) {
                 operatorSelector.setId(currentSelector.getId());
             } else {
-                Collection<Operator> operators = fleetShard.getOperators()
-                    .stream()
-                    .map(mco -> new Operator(
-                        mco.getMetadata().getName(),
-                        mco.getSpec().getType(),
-                        mco.getSpec().getVersion()))
-                    .collect(Collectors.toList());
-
-                OperatorSelectorUtil.assign(operatorSelector, operators)
+                fleetShard.getOperatorIndex()
+                    .assign(operatorSelector)
                     .map(Operator::getId)
                     .ifPresent(operatorSelector::setId);
             }
@@ -233,12 +432,23 @@ public class ConnectorDeploymentProvisioner {
             LABEL_DEPLOYMENT_RESOURCE_VERSION,
             "" + deployment.getMetadata().getResourceVersion());
 
+        // add shard
+        shards.label(
+            connector,
+            deployment.getSpec().getNamespaceId());
+
         // add uow
         Resources.setLabel(
             connector,
             LABEL_UOW,
             uow);
 
+        // add checksum
+        Resources.setAnnotation(
+            connector,
+            ANNOTATION_DEPLOYMENT_CHECKSUM,
+            checksum);
+
         connector.getSpec().getDeployment().setDeploymentResourceVersion(deployment.getMetadata().getResourceVersion());
         connector.getSpec().getDeployment().setDesiredState(deployment.getSpec().getDesiredState().getValue());
         connector.getSpec().getDeployment().setConnectorTypeId(deployment.getSpec().getConnectorTypeId());
@@ -276,8 +486,14 @@ public class ConnectorDeploymentProvisioner {
         }
     }
 
-    private Secret createManagedConnectorSecret(String uow, ConnectorDeployment deployment, ManagedConnector owner) {
-        Secret secret = fleetShard.getSecret(deployment)
+    private Secret createManagedConnectorSecret(
+        String uow,
+        String checksum,
+        ConnectorDeployment deployment,
+        Optional<Secret> current,
+        ManagedConnector owner) {
+
+        Secret secret = current
             .orElseGet(() -> {
                 LOGGER.info(
                     "Secret not found (cluster_id: {}, namespace_id: {}, connector_id: {}, deployment_id: {}, resource_version: {}), creating a new one",
@@ -312,12 +528,23 @@ public class ConnectorDeploymentProvisioner {
             LABEL_DEPLOYMENT_RESOURCE_VERSION,
             "" + deployment.getMetadata().getResourceVersion());
 
+        // add shard
+        shards.label(
+            secret,
+            deployment.getSpec().getNamespaceId());
+
         // add uow
         Resources.setLabel(
             secret,
             LABEL_UOW,
             uow);
 
+        // add checksum
+        Resources.setAnnotation(
+            secret,
+            ANNOTATION_DEPLOYMENT_CHECKSUM,
+            checksum);
+
         // copy operator type
         Resources.setLabel(
             secret,
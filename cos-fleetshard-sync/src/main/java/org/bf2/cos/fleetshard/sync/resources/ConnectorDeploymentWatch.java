@@ -0,0 +1,53 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.bf2.cos.fleet.manager.model.ConnectorDeployment;
+import org.bf2.cos.fleetshard.sync.client.FleetManagerClient;
+import org.bf2.cos.fleetshard.sync.client.FleetShardClient;
+
+@ApplicationScoped
+public class ConnectorDeploymentWatch extends ResourceWatch<ConnectorDeployment> {
+    public static final String ID = "connectors";
+
+    @Inject
+    FleetShardClient connectorClient;
+    @Inject
+    FleetManagerClient fleetManager;
+    @Inject
+    ConnectorDeploymentProvisioner provisioner;
+
+    public ConnectorDeploymentWatch() {
+        super(ID);
+    }
+
+    @Override
+    protected long getMaxResourceRevision() {
+        return connectorClient.getMaxDeploymentResourceRevision();
+    }
+
+    @Override
+    protected void watch(long revision, Runnable onConnected, Consumer<ConnectorDeployment> consumer) {
+        fleetManager.watchDeployments(revision, onConnected, consumer);
+    }
+
+    @Override
+    protected void provision(ConnectorDeployment resource) {
+        provisioner.provisionConnectors(List.of(resource));
+    }
+
+    @Override
+    protected long getResourceRevision(ConnectorDeployment resource) {
+        return resource.getMetadata().getResourceVersion();
+    }
+
+    @Override
+    protected OffsetDateTime getResourceTimestamp(ConnectorDeployment resource) {
+        return resource.getMetadata().getUpdatedAt();
+    }
+}
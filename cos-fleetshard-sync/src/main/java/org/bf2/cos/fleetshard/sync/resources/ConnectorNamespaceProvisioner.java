@@ -2,8 +2,10 @@ package org.bf2.cos.fleetshard.sync.resources;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -23,6 +25,7 @@ import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
 import org.bf2.cos.fleetshard.sync.client.FleetManagerClient;
 import org.bf2.cos.fleetshard.sync.client.FleetShardClient;
 import org.bf2.cos.fleetshard.sync.metrics.MetricsID;
+import org.bf2.cos.fleetshard.sync.sharding.ShardManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,8 +41,6 @@ import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.client.utils.KubernetesResourceUtil;
 import io.micrometer.core.instrument.Tags;
 
-import static org.bf2.cos.fleetshard.support.resources.Resources.uid;
-
 @ApplicationScoped
 public class ConnectorNamespaceProvisioner {
     public static final String DEFAULT_ADDON_PULLSECRET_NAME = "addon-pullsecret";
@@ -66,19 +67,40 @@ public class ConnectorNamespaceProvisioner {
     FleetShardSyncConfig config;
     @Inject
     EventClient eventClient;
+    @Inject
+    ShardManager shards;
 
     @Inject
     @MetricsID(METRICS_SUFFIX)
     MetricsRecorder recorder;
 
-    public void poll(long revision) {
+    /**
+     * Poll the Control Plane for namespaces with a revision greater than the given one and provision them.
+     *
+     * @param  revision the revision to start from.
+     * @return          the number of namespaces that have been provisioned.
+     */
+    public long poll(long revision) {
+        final AtomicLong count = new AtomicLong();
+
         fleetManager.getNamespaces(
             revision,
-            items -> provisionNamespaces(items, revision == 0));
+            items -> {
+                provisionNamespaces(items, revision == 0);
+                // the namespaces are accumulated across pages
+                count.set(items.size());
+            });
+
+        return count.get();
     }
 
-    private void provisionNamespaces(Collection<ConnectorNamespaceDeployment> namespaces, boolean sync) {
+    void provisionNamespaces(Collection<ConnectorNamespaceDeployment> namespaces, boolean sync) {
         for (ConnectorNamespaceDeployment namespace : namespaces) {
+            // in sharded mode, the namespaces assigned to other replicas are left to them
+            if (!shards.owns(namespace.getId())) {
+                continue;
+            }
+
             this.recorder.record(
                 () -> provision(namespace),
                 Tags.of(TAG_NAMESPACE_ID, namespace.getId()),
@@ -101,10 +123,14 @@ public class ConnectorNamespaceProvisioner {
                             .phase(ConnectorNamespaceState.DISCONNECTED)
                             .conditions(List.of(condition));
 
-                        fleetManager.updateNamespaceStatus(
+                        // the failure is reported asynchronously so that provisioning is not held by the Control Plane
+                        fleetManager.updateNamespaceStatusAsync(
                             fleetShard.getClusterId(),
                             namespace.getId(),
-                            status);
+                            status).exceptionally(ex -> {
+                                LOGGER.warn("Error wile reporting failure to the control plane", ex);
+                                return null;
+                            });
                     } catch (Exception ex) {
                         LOGGER.warn("Error wile reporting failure to the control plane", e);
                     }
@@ -126,7 +152,7 @@ public class ConnectorNamespaceProvisioner {
 
             for (Namespace namespace : fleetShard.getNamespaces()) {
                 String nsId = Resources.getLabel(namespace, Resources.LABEL_NAMESPACE_ID);
-                if (nsId == null || knownIds.contains(nsId)) {
+                if (nsId == null || knownIds.contains(nsId) || !shards.owns(nsId)) {
                     continue;
                 }
 
@@ -161,7 +187,12 @@ public class ConnectorNamespaceProvisioner {
 
                 Resources.setLabels(
                     tenantPullSecret,
-                    Resources.LABEL_UOW, uow);
+                    Resources.LABEL_UOW, uow,
+                    Resources.LABEL_CLUSTER_ID, fleetShard.getClusterId());
+
+                shards.label(
+                    tenantPullSecret,
+                    Resources.getLabel(namespace, Resources.LABEL_NAMESPACE_ID));
 
                 fleetShard.createSecret(tenantPullSecret);
             },
@@ -284,7 +315,14 @@ public class ConnectorNamespaceProvisioner {
             connectorNamespace.getStatus().getState(),
             connectorNamespace.getStatus().getConnectorsDeployed());
 
-        String uow = uid();
+        // keep the unit of work if the namespace has already been provisioned out of the very same revision, so a
+        // re-sync of an unchanged namespace does not rewrite the namespace and its pull secret
+        String uow = fleetShard.getCachedNamespace(fleetShard.generateNamespaceId(connectorNamespace.getId()))
+            .filter(n -> Objects.equals(
+                "" + connectorNamespace.getResourceVersion(),
+                Resources.getLabel(n, Resources.LABEL_KUBERNETES_VERSION)))
+            .map(n -> Resources.getLabel(n, Resources.LABEL_UOW))
+            .orElseGet(Resources::uid);
         String state = Namespaces.PHASE_READY;
 
         switch (connectorNamespace.getStatus().getState()) {
@@ -329,6 +367,10 @@ public class ConnectorNamespaceProvisioner {
             Resources.LABEL_NAMESPACE_TENANT_KIND, connectorNamespace.getTenant().getKind().getValue(),
             Resources.LABEL_NAMESPACE_TENANT_ID, KubernetesResourceUtil.sanitizeName(connectorNamespace.getTenant().getId()));
 
+        shards.label(
+            ns,
+            connectorNamespace.getId());
+
         Resources.setAnnotations(
             ns,
             Resources.ANNOTATION_NAMESPACE_EXPIRATION, connectorNamespace.getExpiration(),
@@ -0,0 +1,58 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.bf2.cos.fleet.manager.model.ConnectorNamespaceDeployment;
+import org.bf2.cos.fleetshard.sync.client.FleetManagerClient;
+import org.bf2.cos.fleetshard.sync.client.FleetShardClient;
+
+@ApplicationScoped
+public class ConnectorNamespaceWatch extends ResourceWatch<ConnectorNamespaceDeployment> {
+    public static final String ID = "namespaces";
+
+    @Inject
+    FleetShardClient connectorClient;
+    @Inject
+    FleetManagerClient fleetManager;
+    @Inject
+    ConnectorNamespaceProvisioner provisioner;
+
+    public ConnectorNamespaceWatch() {
+        super(ID);
+    }
+
+    @Override
+    protected boolean isEnabled() {
+        return super.isEnabled() && config.resources().watch().namespaces();
+    }
+
+    @Override
+    protected long getMaxResourceRevision() {
+        return connectorClient.getMaxNamespaceResourceRevision();
+    }
+
+    @Override
+    protected void watch(long revision, Runnable onConnected, Consumer<ConnectorNamespaceDeployment> consumer) {
+        fleetManager.watchNamespaces(revision, onConnected, consumer);
+    }
+
+    @Override
+    protected void provision(ConnectorNamespaceDeployment resource) {
+        provisioner.provisionNamespaces(List.of(resource), false);
+    }
+
+    @Override
+    protected long getResourceRevision(ConnectorNamespaceDeployment resource) {
+        return resource.getResourceVersion();
+    }
+
+    @Override
+    protected OffsetDateTime getResourceTimestamp(ConnectorNamespaceDeployment resource) {
+        return resource.getModifiedAt();
+    }
+}
@@ -0,0 +1,160 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+
+/**
+ * Holds the state metrics of each connector: a gauge registered once per connector and backed by a mutable cell, and
+ * the counters of the states the connector went through. The meters of a connector are removed from the registry when
+ * the connector is removed, and the number of measured connectors is capped to bound the number of time series.
+ */
+class ConnectorStateMetrics {
+    static final String TAG_CONNECTOR_STATE = "cos.connector.state";
+    static final String TAG_CONNECTOR_RESOURCE_VERSION = "cos.connector.resourceversion";
+    static final String STATE_FAILED_BUT_READY = "failed_but_ready";
+
+    private final MeterRegistry registry;
+    private final String gaugeName;
+    private final String counterName;
+    private final boolean resourceVersionTag;
+    private final int maxConnectors;
+    private final ConcurrentMap<String, Cell> cells;
+
+    ConnectorStateMetrics(
+        MeterRegistry registry,
+        String gaugeName,
+        String counterName,
+        boolean resourceVersionTag,
+        int maxConnectors) {
+
+        this.registry = registry;
+        this.gaugeName = gaugeName;
+        this.counterName = counterName;
+        this.resourceVersionTag = resourceVersionTag;
+        this.maxConnectors = maxConnectors;
+        this.cells = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Record the state of a connector.
+     *
+     * @param  deploymentId    the id of the deployment.
+     * @param  tags            the tags identifying the connector, only used the first time the connector is recorded.
+     * @param  resourceVersion the resource version of the connector.
+     * @param  phase           the phase of the connector.
+     * @param  state           the numeric value of the phase.
+     * @param  failed          true if the phase denotes a failure.
+     * @return                 false if the connector has not been recorded because the limit of measured connectors
+     *                         has been reached.
+     */
+    boolean record(
+        String deploymentId,
+        Supplier<List<Tag>> tags,
+        Long resourceVersion,
+        String phase,
+        int state,
+        boolean failed) {
+
+        Cell cell = cells.get(deploymentId);
+
+        if (cell == null) {
+            if (cells.size() >= maxConnectors) {
+                return false;
+            }
+
+            cell = cells.computeIfAbsent(deploymentId, k -> new Cell(tags.get()));
+        }
+
+        synchronized (cell) {
+            cell.state.set(state);
+
+            if (resourceVersionTag && !Objects.equals(cell.resourceVersion, resourceVersion)) {
+                // only the counters of the latest resource version are retained
+                cell.counters.values().forEach(registry::remove);
+                cell.counters.clear();
+            }
+
+            cell.resourceVersion = resourceVersion;
+            cell.counter(phase).increment();
+
+            if (failed && cell.ready) {
+                // a connector that has already started but is now failing
+                cell.counter(STATE_FAILED_BUT_READY).increment();
+            }
+            if (state == ConnectorStatusUpdater.CONNECTOR_STATE_READY) {
+                cell.ready = true;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Remove the metrics of a connector.
+     *
+     * @param deploymentId the id of the deployment.
+     */
+    void remove(String deploymentId) {
+        final Cell cell = cells.remove(deploymentId);
+        if (cell == null) {
+            return;
+        }
+
+        synchronized (cell) {
+            registry.remove(cell.gauge);
+            cell.counters.values().forEach(registry::remove);
+            cell.counters.clear();
+        }
+    }
+
+    int size() {
+        return cells.size();
+    }
+
+    private final class Cell {
+        final List<Tag> tags;
+        final AtomicInteger state;
+        final Gauge gauge;
+        final Map<String, Counter> counters;
+
+        Long resourceVersion;
+        boolean ready;
+
+        Cell(List<Tag> tags) {
+            this.tags = tags;
+            this.state = new AtomicInteger();
+            this.counters = new HashMap<>();
+
+            // the gauge holds a strong reference to the cell state, which is updated in place
+            this.gauge = Gauge.builder(gaugeName, state, AtomicInteger::get)
+                .tags(tags)
+                .strongReference(true)
+                .register(registry);
+        }
+
+        Counter counter(String phase) {
+            return counters.computeIfAbsent(phase, k -> {
+                Counter.Builder builder = Counter.builder(counterName)
+                    .tags(tags)
+                    .tag(TAG_CONNECTOR_STATE, k);
+
+                if (resourceVersionTag) {
+                    builder.tag(TAG_CONNECTOR_RESOURCE_VERSION, String.valueOf(resourceVersion));
+                }
+
+                return builder.register(registry);
+            });
+        }
+    }
+}
@@ -3,9 +3,7 @@ package org.bf2.cos.fleetshard.sync.resources;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.Temporal;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.List;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
@@ -56,40 +54,53 @@ public class ConnectorStatusSync implements Service {
     Counter updateTotalRecorder;
 
     private volatile Instant lastResync;
-    private volatile Instant lastUpdate;
+    private volatile DebounceQueue<NamespacedName> connectors;
+    private volatile Thread consumer;
 
-    private final ConcurrentMap<NamespacedName, Instant> connectors = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
 
     @Override
     public void start() throws Exception {
         LOGGER.info("Starting connector status sync");
 
+        connectors = new DebounceQueue<>(config.resources().statusDebounce());
+
         connectorClient.watchConnectors(new ResourceEventHandler<>() {
             @Override
             public void onAdd(ManagedConnector connector) {
-                connectors.put(NamespacedName.of(connector), Instant.now());
+                connectors.add(NamespacedName.of(connector));
             }
 
             @Override
             public void onUpdate(ManagedConnector ignored, ManagedConnector connector) {
-                connectors.put(NamespacedName.of(connector), Instant.now());
+                connectors.add(NamespacedName.of(connector));
             }
 
             @Override
             public void onDelete(ManagedConnector connector, boolean deletedFinalStateUnknown) {
                 connectors.remove(NamespacedName.of(connector));
+                updater.remove(connector);
             }
         });
 
+        consumer = new Thread(this::consume, "cos-connectors-status-sync");
+        consumer.setDaemon(true);
+        consumer.start();
+
         scheduler.schedule(
             JOB_ID,
-            ConnectorStatusSyncJob.class,
+            this::run,
             config.resources().updateInterval());
     }
 
     @Override
     public void stop() {
         scheduler.shutdownQuietly(JOB_ID);
+
+        if (consumer != null) {
+            consumer.interrupt();
+            consumer = null;
+        }
     }
 
     public void run() {
@@ -97,14 +108,47 @@ public class ConnectorStatusSync implements Service {
         final Instant now = Instant.now();
         final boolean resync = lastResync == null || greater(lastResync, now, resyncInterval);
 
-        if (resync) {
-            syncRecorder.record(this::sync);
-            lastResync = now;
-        } else {
-            updateRecorder.record(this::update);
+        if (!resync) {
+            return;
         }
 
-        lastUpdate = now;
+        synchronized (lock) {
+            try {
+                syncRecorder.record(this::sync);
+                lastResync = now;
+            } finally {
+                updater.flush();
+            }
+        }
+    }
+
+    /**
+     * Report the status of the connectors marked as dirty by the informer as soon as their debounce delay elapses,
+     * so that changes are reported without waiting for the next update interval.
+     */
+    private void consume() {
+        final Duration timeout = config.resources().updateInterval();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                final List<NamespacedName> keys = connectors.poll(timeout);
+                if (keys.isEmpty()) {
+                    continue;
+                }
+
+                synchronized (lock) {
+                    try {
+                        updateRecorder.record(() -> update(keys));
+                    } finally {
+                        updater.flush();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                LOGGER.warn("Failure while updating connectors status", e);
+            }
+        }
     }
 
     private void sync() {
@@ -123,16 +167,14 @@ public class ConnectorStatusSync implements Service {
         }
     }
 
-    private void update() {
+    private void update(List<NamespacedName> keys) {
         int count = 0;
 
         try {
-            for (Map.Entry<NamespacedName, Instant> entry : connectors.entrySet()) {
-                if (entry.getValue().isAfter(lastUpdate)) {
-                    connectorClient.getConnector(entry.getKey()).ifPresent(updater::update);
+            for (NamespacedName key : keys) {
+                connectorClient.getConnector(key).ifPresent(updater::update);
 
-                    count++;
-                }
+                count++;
             }
         } finally {
             if (count > 0) {
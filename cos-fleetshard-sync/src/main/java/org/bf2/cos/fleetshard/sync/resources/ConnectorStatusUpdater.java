@@ -1,8 +1,14 @@
 package org.bf2.cos.fleetshard.sync.resources;
 
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
@@ -11,14 +17,18 @@ import org.bf2.cos.fleetshard.api.ManagedConnector;
 import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
 import org.bf2.cos.fleetshard.sync.client.FleetManagerClient;
 import org.bf2.cos.fleetshard.sync.client.FleetManagerClientException;
+import org.bf2.cos.fleetshard.sync.client.FleetManagerUnavailableException;
 import org.bf2.cos.fleetshard.sync.client.FleetShardClient;
+import org.bf2.cos.fleetshard.sync.client.RestClientHelper;
+import org.bf2.cos.fleetshard.sync.metrics.MetricsID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
 
 @ApplicationScoped
 public class ConnectorStatusUpdater {
@@ -26,6 +36,9 @@ public class ConnectorStatusUpdater {
 
     public static final String CONNECTOR_STATE = "connector.state";
     public static final String CONNECTOR_STATE_COUNT = "connector.state.count";
+    public static final String METRICS_SKIPPED = "connectors.status.skipped";
+    public static final String METRICS_FLUSH = "connectors.status.flush";
+    public static final String METRICS_BATCH_SIZE = "connectors.status.batch.size";
 
     static final int CONNECTOR_STATE_READY = 1;
     static final int CONNECTOR_STATE_FAILED = 2;
@@ -41,7 +54,70 @@ public class ConnectorStatusUpdater {
     MeterRegistry registry;
     @Inject
     FleetShardSyncConfig config;
+    @Inject
+    @MetricsID(METRICS_SKIPPED)
+    Counter skipped;
+
+    final StatusReports reports = new StatusReports();
+
+    private StatusBatch<PendingStatus> batch;
+    private ScheduledExecutorService timer;
+    private int concurrency;
+    private ConnectorStateMetrics stateMetrics;
+    private Timer flushTimer;
+    private DistributionSummary batchSize;
+
+    @PostConstruct
+    void init() {
+        final FleetShardSyncConfig.StatusBatch batchConfig = config.resources().statusBatch();
+
+        this.concurrency = Math.max(1, batchConfig.concurrency());
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread answer = new Thread(r, "cos-connectors-status-flush");
+            answer.setDaemon(true);
+            return answer;
+        });
+
+        // statuses are held in the batch while the Control Plane circuit breaker is open
+        this.batch = new StatusBatch<>(
+            batchConfig.size(),
+            batchConfig.maxDelay(),
+            fleetManagerClient::isAvailable,
+            this::send,
+            timer);
+
+        this.flushTimer = Timer.builder(config.metrics().baseName() + "." + METRICS_FLUSH)
+            .publishPercentileHistogram()
+            .register(registry);
+        this.batchSize = DistributionSummary.builder(config.metrics().baseName() + "." + METRICS_BATCH_SIZE)
+            .publishPercentileHistogram()
+            .register(registry);
+
+        this.stateMetrics = new ConnectorStateMetrics(
+            registry,
+            config.metrics().baseName() + "." + CONNECTOR_STATE,
+            config.metrics().baseName() + "." + CONNECTOR_STATE_COUNT,
+            config.metrics().connectorState().resourceVersionTag(),
+            config.metrics().connectorState().maxConnectors());
+    }
+
+    @PreDestroy
+    void destroy() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
 
+    /**
+     * Queue the status of a connector to be reported to the Control Plane. The status, i.e. its phase, conditions,
+     * operators and resource version, is queued only if it differs from the last successfully reported one or if the
+     * last report is older than the configured maximum staleness.
+     * </p>
+     * Queued statuses are sent once enough of them are pending, once the oldest one reaches the configured maximum
+     * delay, or when {@link #flush()} is invoked.
+     *
+     * @param connector the connector.
+     */
     public void update(ManagedConnector connector) {
         LOGGER.debug("Update connector status (name: {}, phase: {})",
             connector.getMetadata().getName(),
@@ -50,7 +126,98 @@ public class ConnectorStatusUpdater {
         try {
             ConnectorDeploymentStatus connectorDeploymentStatus = ConnectorStatusExtractor.extract(connector);
 
-            fleetManagerClient.updateConnectorStatus(connector, connectorDeploymentStatus);
+            final String deploymentId = connector.getSpec().getDeploymentId();
+            final long fingerprint = StatusReports.fingerprint(connectorDeploymentStatus);
+            final Instant now = Instant.now();
+
+            if (!reports.isDue(deploymentId, fingerprint, now, config.resources().statusMaxStaleness())) {
+                LOGGER.debug("Skipping unchanged connector status (name: {}, deployment_id: {})",
+                    connector.getMetadata().getName(),
+                    deploymentId);
+
+                batch.remove(deploymentId);
+                skipped.increment();
+                return;
+            }
+
+            batch.add(deploymentId, new PendingStatus(connector, connectorDeploymentStatus, fingerprint), now);
+        } catch (Exception e) {
+            LOGGER.warn("Error updating status of connector " + connector.getMetadata().getName(), e);
+        }
+    }
+
+    /**
+     * Send all the queued statuses to the Control Plane, waiting for the requests to complete.
+     */
+    public void flush() {
+        batch.flush();
+    }
+
+    /**
+     * Forget the last reported status of a connector, so that its next status is reported even if unchanged. To be
+     * invoked when a status has been sent to the Control Plane bypassing this updater.
+     *
+     * @param deploymentId the id of the deployment.
+     */
+    public void invalidate(String deploymentId) {
+        reports.remove(deploymentId);
+    }
+
+    /**
+     * Forget the last reported status of a connector, discard any queued one and remove its state metrics.
+     *
+     * @param connector the connector.
+     */
+    public void remove(ManagedConnector connector) {
+        reports.remove(connector.getSpec().getDeploymentId());
+        batch.remove(connector.getSpec().getDeploymentId());
+        stateMetrics.remove(connector.getSpec().getDeploymentId());
+    }
+
+    private void send(List<PendingStatus> statuses) {
+        batchSize.record(statuses.size());
+
+        // statuses are sent asynchronously over a bounded number of lanes, each lane sending its statuses one after
+        // the other; the overall number of in-flight requests is further bounded by the client
+        flushTimer.record(() -> {
+            final CompletableFuture<?>[] lanes = new CompletableFuture<?>[Math.min(concurrency, statuses.size())];
+            Arrays.fill(lanes, CompletableFuture.completedFuture(null));
+
+            for (int i = 0; i < statuses.size(); i++) {
+                final PendingStatus status = statuses.get(i);
+                final int lane = i % lanes.length;
+
+                lanes[lane] = lanes[lane].thenCompose(ignored -> send(status));
+            }
+
+            CompletableFuture.allOf(lanes).join();
+        });
+    }
+
+    private CompletableFuture<Void> send(PendingStatus pending) {
+        try {
+            return fleetManagerClient.updateConnectorStatusAsync(pending.connector, pending.status)
+                .toCompletableFuture()
+                .handle((ignored, e) -> {
+                    if (e != null) {
+                        failed(pending, RestClientHelper.wrap(e));
+                    } else {
+                        reported(pending);
+                    }
+                    return null;
+                });
+        } catch (Exception e) {
+            failed(pending, RestClientHelper.wrap(e));
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private void reported(PendingStatus pending) {
+        final ManagedConnector connector = pending.connector;
+        final ConnectorDeploymentStatus connectorDeploymentStatus = pending.status;
+
+        try {
+            reports.reported(connector.getSpec().getDeploymentId(), pending.fingerprint, Instant.now());
 
             LOGGER.debug("Updating Connector status metrics (Connector_id: {}, state: {})",
                 connector.getSpec().getConnectorId(), connectorDeploymentStatus.getPhase());
@@ -72,18 +239,31 @@ public class ConnectorStatusUpdater {
                     measure(connector, connectorDeploymentStatus, CONNECTOR_STATE_IN_PROCESS);
                     break;
             }
+        } catch (Exception e) {
+            LOGGER.warn("Error updating status metrics of connector " + connector.getMetadata().getName(), e);
+        }
+    }
+
+    private void failed(PendingStatus pending, FleetManagerClientException e) {
+        final ManagedConnector connector = pending.connector;
 
-        } catch (FleetManagerClientException e) {
-            if (e.getStatusCode() == 410) {
+        try {
+            if (e instanceof FleetManagerUnavailableException) {
+                LOGGER.debug("Control Plane unavailable, holding status of connector {}",
+                    connector.getMetadata().getName());
+                batch.requeue(connector.getSpec().getDeploymentId(), pending, Instant.now());
+            } else if (e.getStatusCode() == 410) {
                 LOGGER.info("Connector " + connector.getMetadata().getName() + " does not exists anymore, deleting it");
+                reports.remove(connector.getSpec().getDeploymentId());
+
                 if (connectorClient.deleteConnector(connector)) {
                     LOGGER.info("Connector " + connector.getMetadata().getName() + " deleted");
                 }
             } else {
                 LOGGER.warn("Error updating status of connector " + connector.getMetadata().getName(), e);
             }
-        } catch (Exception e) {
-            LOGGER.warn("Error updating status of connector " + connector.getMetadata().getName(), e);
+        } catch (Exception ex) {
+            LOGGER.warn("Error updating status of connector " + connector.getMetadata().getName(), ex);
         }
     }
 
@@ -95,48 +275,33 @@ public class ConnectorStatusUpdater {
      * state count for the connector
      */
     private void measure(ManagedConnector connector, ConnectorDeploymentStatus connectorDeploymentStatus, int connectorState) {
+        final boolean recorded = stateMetrics.record(
+            connector.getSpec().getDeploymentId(),
+            () -> List.of(
+                Tag.of("cos.connector.id", connector.getSpec().getConnectorId()),
+                Tag.of("cos.connector.type.id", connector.getSpec().getDeployment().getConnectorTypeId()),
+                Tag.of("cos.deployment.id", connector.getSpec().getDeploymentId()),
+                Tag.of("cos.namespace", connector.getMetadata().getNamespace())),
+            connector.getSpec().getDeployment().getConnectorResourceVersion(),
+            connectorDeploymentStatus.getPhase().getValue(),
+            connectorState,
+            CONNECTOR_STATE_FAILED == connectorState);
 
-        List<Tag> tags = List.of(
-            Tag.of("cos.connector.id", connector.getSpec().getConnectorId()),
-            Tag.of("cos.connector.type.id", connector.getSpec().getDeployment().getConnectorTypeId()),
-            Tag.of("cos.deployment.id", connector.getSpec().getDeploymentId()),
-            Tag.of("cos.namespace", connector.getMetadata().getNamespace()));
-
-        String connectorResourceVersion = String.valueOf(connector.getSpec().getDeployment().getConnectorResourceVersion());
-
-        Gauge gauge = registry.find(config.metrics().baseName() + "." + CONNECTOR_STATE).tags(tags).gauge();
-
-        if (gauge != null) {
-            registry.remove(gauge);
+        if (!recorded) {
+            LOGGER.debug("Connector state metrics limit reached, not measuring connector {}",
+                connector.getMetadata().getName());
         }
+    }
 
-        Gauge.builder(config.metrics().baseName() + "." + CONNECTOR_STATE, () -> new AtomicInteger(connectorState))
-            .tags(tags)
-            .register(registry);
+    private static final class PendingStatus {
+        final ManagedConnector connector;
+        final ConnectorDeploymentStatus status;
+        final long fingerprint;
 
-        Counter.builder(config.metrics().baseName() + "." + CONNECTOR_STATE_COUNT)
-            .tags(tags)
-            .tag("cos.connector.state", connectorDeploymentStatus.getPhase().getValue())
-            .tag("cos.connector.resourceversion", connectorResourceVersion)
-            .register(registry)
-            .increment();
-
-        if (CONNECTOR_STATE_FAILED == connectorState) {
-            Counter counter = registry.find(config.metrics().baseName() + "." + CONNECTOR_STATE_COUNT)
-                .tags(tags).tag("cos.connector.state", "ready")
-                .tagKeys("cos.connector.resourceversion").counter();
-
-            if (counter != null && counter.count() != 0) {
-
-                // Exposing a new state "failed_but_ready" when a connector has already started but now failing
-                Counter.builder(config.metrics().baseName() + "." + CONNECTOR_STATE_COUNT)
-                    .tags(tags)
-                    .tag("cos.connector.state", "failed_but_ready")
-                    .tag("cos.connector.resourceversion", connectorResourceVersion)
-                    .register(registry)
-                    .increment();
-            }
+        PendingStatus(ManagedConnector connector, ConnectorDeploymentStatus status, long fingerprint) {
+            this.connector = connector;
+            this.status = status;
+            this.fingerprint = fingerprint;
         }
-
     }
 }
@@ -0,0 +1,104 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A queue of dirty keys where a key is queued at most once: marking a key that is already queued is a no-op, and a key
+ * becomes ready for consumption once the debounce delay has elapsed since it was first marked, so that a burst of
+ * changes to the same resource results in a single unit of work.
+ *
+ * @param <K> the type of the keys
+ */
+class DebounceQueue<K> {
+    private final long debounce;
+    private final Map<K, Long> deadlines;
+
+    DebounceQueue(Duration debounce) {
+        this.debounce = debounce.toNanos();
+        this.deadlines = new LinkedHashMap<>();
+    }
+
+    /**
+     * Mark a key as dirty.
+     *
+     * @param key the key.
+     */
+    synchronized void add(K key) {
+        if (deadlines.putIfAbsent(key, System.nanoTime() + debounce) == null) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Discard a key, if queued.
+     *
+     * @param key the key.
+     */
+    synchronized void remove(K key) {
+        deadlines.remove(key);
+    }
+
+    synchronized int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Wait for keys to become ready and remove them from the queue.
+     *
+     * @param  timeout              the maximum time to wait.
+     * @return                      the ready keys, in the order they were marked, or an empty list if none became
+     *                              ready within the given timeout.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    synchronized List<K> poll(Duration timeout) throws InterruptedException {
+        final long end = System.nanoTime() + timeout.toNanos();
+
+        for (;;) {
+            final long now = System.nanoTime();
+            final List<K> answer = drain(now);
+
+            if (!answer.isEmpty()) {
+                return answer;
+            }
+
+            long wait = end - now;
+            if (wait <= 0) {
+                return Collections.emptyList();
+            }
+
+            // wake up as soon as the earliest key becomes ready, keys are stored in deadline order
+            if (!deadlines.isEmpty()) {
+                wait = Math.min(wait, deadlines.values().iterator().next() - now);
+            }
+
+            TimeUnit.NANOSECONDS.timedWait(this, Math.max(1, wait));
+        }
+    }
+
+    private List<K> drain(long now) {
+        List<K> answer = null;
+
+        for (Iterator<Map.Entry<K, Long>> it = deadlines.entrySet().iterator(); it.hasNext();) {
+            final Map.Entry<K, Long> entry = it.next();
+
+            if (entry.getValue() - now > 0) {
+                break;
+            }
+            if (answer == null) {
+                answer = new ArrayList<>();
+            }
+
+            answer.add(entry.getKey());
+            it.remove();
+        }
+
+        return answer != null ? answer : Collections.emptyList();
+    }
+}
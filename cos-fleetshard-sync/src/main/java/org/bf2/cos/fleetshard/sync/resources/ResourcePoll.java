@@ -11,16 +11,30 @@ import org.bf2.cos.fleetshard.support.Service;
 import org.bf2.cos.fleetshard.support.metrics.StaticMetricsRecorder;
 import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
 import org.bf2.cos.fleetshard.sync.FleetShardSyncScheduler;
+import org.bf2.cos.fleetshard.sync.client.FleetManagerClient;
+import org.bf2.cos.fleetshard.sync.client.FleetManagerUnavailableException;
 import org.bf2.cos.fleetshard.sync.client.FleetShardClient;
 import org.bf2.cos.fleetshard.sync.metrics.MetricsID;
 import org.eclipse.microprofile.faulttolerance.Retry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @ApplicationScoped
 public class ResourcePoll implements Service {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourcePoll.class);
+
     private static final String JOB_ID = "cos.resources.poll";
     private static final long BEGINNING = 0;
     public static final String METRICS_SYNC = "connectors.sync";
     public static final String METRICS_POLL = "connectors.poll";
+    public static final String METRICS_POLL_INTERVAL = METRICS_POLL + ".interval";
+    public static final String METRICS_POLL_EMPTY_STREAK = METRICS_POLL + ".empty.streak";
+
+    // how often the adaptive mode checks if a poll is due
+    private static final Duration ADAPTIVE_POLL_TICK = Duration.ofSeconds(1);
 
     @Inject
     FleetShardSyncConfig config;
@@ -29,9 +43,18 @@ public class ResourcePoll implements Service {
     @Inject
     FleetShardClient connectorClient;
     @Inject
+    FleetManagerClient fleetManager;
+    @Inject
     ConnectorDeploymentProvisioner connectorsProvisioner;
     @Inject
     ConnectorNamespaceProvisioner namespaceProvisioner;
+    @Inject
+    ConnectorDeploymentWatch connectorsWatch;
+    @Inject
+    ConnectorNamespaceWatch namespacesWatch;
+
+    @Inject
+    MeterRegistry registry;
 
     @Inject
     @MetricsID(METRICS_SYNC)
@@ -41,14 +64,54 @@ public class ResourcePoll implements Service {
     StaticMetricsRecorder pollRecorder;
 
     private volatile Instant lastResync;
+    private volatile Instant nextPoll;
+    private volatile AdaptivePollInterval adaptiveInterval;
+    private volatile boolean failed;
 
     @Override
     public void start() throws Exception {
+        // resume from the checkpoint of a previous run, if any, so a restart does not force a full resync and the
+        // next one is due relative to the last one
+        lastResync = connectorClient.getCheckpointedResync().orElse(null);
+
+        if (lastResync != null) {
+            LOGGER.info("Resuming incremental poll (deployments: {}, namespaces: {}, last resync: {})",
+                connectorClient.getMaxDeploymentResourceRevision(),
+                connectorClient.getMaxNamespaceResourceRevision(),
+                lastResync);
+        }
+
+        final FleetShardSyncConfig.AdaptivePoll adaptive = config.resources().adaptivePoll();
+
+        if (!adaptive.enabled()) {
+            scheduler.schedule(
+                JOB_ID,
+                this::execute,
+                config.resources().pollInterval());
+
+            return;
+        }
+
+        adaptiveInterval = new AdaptivePollInterval(
+            config.resources().pollInterval(),
+            adaptive.minInterval(),
+            adaptive.maxInterval(),
+            adaptive.jitter());
+
+        Gauge.builder(config.metrics().baseName() + "." + METRICS_POLL_INTERVAL, this,
+            p -> p.adaptiveInterval.getInterval().toMillis())
+            .baseUnit("milliseconds")
+            .register(registry);
+        Gauge.builder(config.metrics().baseName() + "." + METRICS_POLL_EMPTY_STREAK, this,
+            p -> p.adaptiveInterval.getEmptyStreak())
+            .register(registry);
+
+        nextPoll = null;
 
         scheduler.schedule(
             JOB_ID,
-            ResourcePollJob.class,
-            config.resources().pollInterval());
+            this::execute,
+            ADAPTIVE_POLL_TICK);
     }
 
     @Override
@@ -56,8 +119,68 @@ public class ResourcePoll implements Service {
         scheduler.shutdownQuietly(JOB_ID);
     }
 
-    @Retry(maxRetries = 10, delay = 1, delayUnit = ChronoUnit.SECONDS)
+    /**
+     * Run a poll if one is due, and compute when the next one is due.
+     */
+    void execute() {
+        if (!isPollDue()) {
+            return;
+        }
+
+        try {
+            run();
+        } finally {
+            schedulePoll();
+        }
+    }
+
+    /**
+     * @return true if a poll is due, which is always the case unless the adaptive poll interval is enabled.
+     */
+    public boolean isPollDue() {
+        final Instant next = nextPoll;
+        return adaptiveInterval == null || next == null || !Instant.now().isBefore(next);
+    }
+
+    /**
+     * Compute when the next poll is due according to the adaptive poll interval, if enabled.
+     */
+    public void schedulePoll() {
+        final AdaptivePollInterval adaptive = adaptiveInterval;
+        if (adaptive != null) {
+            nextPoll = Instant.now().plus(adaptive.next());
+        }
+    }
+
+    /**
+     * Force a full sync on the next run.
+     */
+    public void resync() {
+        lastResync = null;
+    }
+
+    @Retry(
+        maxRetries = 10,
+        delay = 1,
+        delayUnit = ChronoUnit.SECONDS,
+        abortOn = FleetManagerUnavailableException.class)
     public void run() {
+        // a run following a failed one, either because of the retry policy or because of the next scheduled poll, is
+        // a retry and is subject to the client wide retry budget
+        if (failed && !fleetManager.tryRetry()) {
+            throw new FleetManagerUnavailableException("Retry budget exhausted");
+        }
+
+        try {
+            doRun();
+            failed = false;
+        } catch (RuntimeException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    private void doRun() {
         Instant now = Instant.now();
         boolean resync = lastResync == null;
 
@@ -69,19 +192,46 @@ public class ResourcePoll implements Service {
             syncRecorder.record(this::sync);
             lastResync = now;
         } else {
-            pollRecorder.record(this::poll);
+            long changes = pollRecorder.recordCallable(this::poll);
+
+            if (adaptiveInterval != null) {
+                adaptiveInterval.record(changes);
+            }
+        }
+
+        try {
+            connectorClient.updateCheckpoint(lastResync);
+        } catch (Exception e) {
+            LOGGER.warn("Failure recording sync checkpoint", e);
         }
     }
 
     private void sync() {
+        // every deployment is provisioned again, so a failure is either recorded again or resolved, which also covers
+        // failed deployments that have since been removed from the Control Plane
+        connectorClient.clearDeploymentFailures();
+
         namespaceProvisioner.poll(BEGINNING);
         connectorsProvisioner.poll(BEGINNING);
     }
 
-    private void poll() {
-        namespaceProvisioner.poll(
-            connectorClient.getMaxNamespaceResourceRevision());
-        connectorsProvisioner.poll(
-            connectorClient.getMaxDeploymentResourceRevision());
+    private long poll() {
+        long changes = 0;
+
+        // namespaces and deployments are pushed by the watch streams while they are connected
+        if (!namespacesWatch.isConnected()) {
+            changes += namespaceProvisioner.poll(
+                connectorClient.getMaxNamespaceResourceRevision());
+        }
+
+        if (!connectorsWatch.isConnected()) {
+            changes += connectorsProvisioner.poll(
+                connectorClient.getMaxDeploymentResourceRevision());
+
+            // the deployments above the checkpoint have been polled again, failures are now tracked individually
+            connectorClient.releaseCheckpoint();
+        }
+
+        return changes;
     }
 }
@@ -0,0 +1,199 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.inject.Inject;
+
+import org.bf2.cos.fleetshard.support.Service;
+import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Base class for long-lived consumers of the Control Plane watch streams.
+ * </p>
+ * A watch resumes from the highest known revision, hands each received resource to the provisioner and re-establishes
+ * the stream with an exponential backoff when it drops. While the stream is connected, {@link ResourcePoll} skips
+ * incremental polling of the related resources.
+ *
+ * @param <T> the type of the watched resource
+ */
+public abstract class ResourceWatch<T> implements Service {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceWatch.class);
+
+    @Inject
+    FleetShardSyncConfig config;
+    @Inject
+    MeterRegistry registry;
+
+    private final String id;
+    private final AtomicBoolean running;
+    private final AtomicLong revision;
+
+    private volatile boolean connected;
+    private volatile ExecutorService executor;
+
+    private Counter eventsCounter;
+    private Counter reconnectCounter;
+    private Timer lagTimer;
+
+    protected ResourceWatch(String id) {
+        this.id = id;
+        this.running = new AtomicBoolean();
+        this.revision = new AtomicLong();
+    }
+
+    @Override
+    public void start() throws Exception {
+        if (!isEnabled()) {
+            LOGGER.info("Skipping starting {} watch as it is not enabled", id);
+            return;
+        }
+
+        LOGGER.info("Starting {} watch", id);
+
+        final String metricsId = config.metrics().baseName() + "." + id + ".watch";
+
+        eventsCounter = Counter.builder(metricsId + ".events").register(registry);
+        reconnectCounter = Counter.builder(metricsId + ".reconnect").register(registry);
+        lagTimer = Timer.builder(metricsId + ".lag").register(registry);
+
+        Gauge.builder(metricsId + ".connected", () -> connected ? 1 : 0).register(registry);
+        Gauge.builder(metricsId + ".revision", revision::get).register(registry);
+
+        running.set(true);
+
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread answer = new Thread(r, "cos-" + id + "-watch");
+            answer.setDaemon(true);
+            return answer;
+        });
+
+        executor.submit(this::run);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        running.set(false);
+        connected = false;
+
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * @return true if the watch stream is currently connected to the Control Plane.
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * @return true if watching the resources is enabled.
+     */
+    protected boolean isEnabled() {
+        return config.resources().watch().enabled();
+    }
+
+    /**
+     * @return the highest revision of the resources known to the cluster.
+     */
+    protected abstract long getMaxResourceRevision();
+
+    /**
+     * Open the watch stream and block until it is closed.
+     *
+     * @param revision    the revision to start watching from.
+     * @param onConnected invoked once the Control Plane has responded and the stream is established.
+     * @param consumer    the consumer for the received resources.
+     */
+    protected abstract void watch(long revision, Runnable onConnected, Consumer<T> consumer);
+
+    protected abstract void provision(T resource);
+
+    protected abstract long getResourceRevision(T resource);
+
+    protected abstract OffsetDateTime getResourceTimestamp(T resource);
+
+    private void run() {
+        final Duration minDelay = config.resources().watch().reconnectDelay();
+        final Duration maxDelay = config.resources().watch().maxReconnectDelay();
+
+        Duration delay = minDelay;
+
+        while (running.get()) {
+            final AtomicLong events = new AtomicLong();
+
+            try {
+                long gv = Math.max(revision.get(), getMaxResourceRevision());
+
+                LOGGER.info("Watching {} from revision {}", id, gv);
+
+                // the stream is considered connected only once the Control Plane has responded, so polling is not
+                // skipped while a connection attempt hangs or is refused
+                watch(gv, () -> connected = true, resource -> {
+                    connected = true;
+                    events.incrementAndGet();
+                    eventsCounter.increment();
+
+                    OffsetDateTime timestamp = getResourceTimestamp(resource);
+                    if (timestamp != null) {
+                        Duration lag = Duration.between(timestamp.toInstant(), OffsetDateTime.now().toInstant());
+                        if (!lag.isNegative()) {
+                            lagTimer.record(lag);
+                        }
+                    }
+
+                    provision(resource);
+
+                    revision.accumulateAndGet(getResourceRevision(resource), Math::max);
+                });
+
+                LOGGER.info("The {} watch stream has been closed, reconnecting", id);
+            } catch (Exception e) {
+                LOGGER.warn("Error watching {}, falling back to polling until the stream is re-established: {}",
+                    id,
+                    e.getMessage());
+            } finally {
+                connected = false;
+            }
+
+            if (!running.get()) {
+                break;
+            }
+
+            // reset the backoff as soon as a stream has been able to deliver events
+            if (events.get() > 0) {
+                delay = minDelay;
+            }
+
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            delay = delay.multipliedBy(2);
+            if (delay.compareTo(maxDelay) > 0) {
+                delay = maxDelay;
+            }
+
+            reconnectCounter.increment();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Collects pending status updates keyed by resource, so that only the latest update of a resource is retained, and
+ * hands them over in groups once either the number of pending updates or the age of the oldest one reach a threshold.
+ * </p>
+ * When a timer is provided, the pending updates are also flushed once the oldest one reaches the maximum delay even
+ * if no further update arrives. Updates are held back while the receiver is not ready, e.g. while the Control Plane
+ * is unavailable, and handed over on the first flush after it becomes ready again.
+ *
+ * @param <T> the type of the updates
+ */
+class StatusBatch<T> {
+    private final int size;
+    private final Duration maxDelay;
+    private final BooleanSupplier ready;
+    private final Consumer<List<T>> flusher;
+    private final Map<String, T> pending;
+    private final ScheduledExecutorService timer;
+
+    private Instant oldest;
+    private ScheduledFuture<?> deadline;
+
+    StatusBatch(int size, Duration maxDelay, BooleanSupplier ready, Consumer<List<T>> flusher) {
+        this(size, maxDelay, ready, flusher, null);
+    }
+
+    StatusBatch(int size, Duration maxDelay, BooleanSupplier ready, Consumer<List<T>> flusher,
+        ScheduledExecutorService timer) {
+
+        this.size = Math.max(1, size);
+        this.maxDelay = maxDelay;
+        this.ready = ready;
+        this.flusher = flusher;
+        this.pending = new LinkedHashMap<>();
+        this.timer = timer;
+    }
+
+    /**
+     * Add an update, replacing any pending update for the same resource, and flush the pending updates if a threshold
+     * has been reached.
+     *
+     * @param key    the key of the resource.
+     * @param update the update.
+     * @param now    the current time.
+     */
+    void add(String key, T update, Instant now) {
+        List<T> batch = null;
+
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                oldest = now;
+                arm();
+            }
+
+            pending.put(key, update);
+
+            final boolean due = pending.size() >= size || Duration.between(oldest, now).compareTo(maxDelay) >= 0;
+
+            if (due && ready.getAsBoolean()) {
+                batch = drain();
+            }
+        }
+
+        if (batch != null) {
+            flusher.accept(batch);
+        }
+    }
+
+    /**
+     * Flush all the pending updates, unless the receiver is not ready.
+     */
+    void flush() {
+        List<T> batch;
+
+        synchronized (this) {
+            if (!ready.getAsBoolean()) {
+                return;
+            }
+
+            batch = drain();
+        }
+
+        if (!batch.isEmpty()) {
+            flusher.accept(batch);
+        }
+    }
+
+    /**
+     * Put back an update that could not be delivered, unless a newer update for the same resource is pending. The
+     * update is delivered on the next flush.
+     *
+     * @param key    the key of the resource.
+     * @param update the update.
+     * @param now    the current time.
+     */
+    synchronized void requeue(String key, T update, Instant now) {
+        if (pending.isEmpty()) {
+            oldest = now;
+            arm();
+        }
+
+        pending.putIfAbsent(key, update);
+    }
+
+    /**
+     * Discard the pending update of a resource, if any.
+     *
+     * @param key the key of the resource.
+     */
+    synchronized void remove(String key) {
+        pending.remove(key);
+
+        if (pending.isEmpty()) {
+            disarm();
+        }
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+
+    private List<T> drain() {
+        final List<T> answer = new ArrayList<>(pending.values());
+        pending.clear();
+        oldest = null;
+        disarm();
+
+        return answer;
+    }
+
+    /**
+     * Flush the pending updates once the oldest one is due, re-arming the timer if the receiver is not ready.
+     */
+    private void expire() {
+        List<T> batch;
+
+        synchronized (this) {
+            deadline = null;
+
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (!ready.getAsBoolean()) {
+                arm();
+                return;
+            }
+
+            batch = drain();
+        }
+
+        flusher.accept(batch);
+    }
+
+    private void arm() {
+        if (timer != null && deadline == null) {
+            deadline = timer.schedule(this::expire, maxDelay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void disarm() {
+        if (deadline != null) {
+            deadline.cancel(false);
+            deadline = null;
+        }
+    }
+}
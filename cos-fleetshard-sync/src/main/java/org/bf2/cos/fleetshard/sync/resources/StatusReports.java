@@ -0,0 +1,111 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+import org.bf2.cos.fleet.manager.model.MetaV1Condition;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.fabric8.kubernetes.client.utils.Serialization;
+
+/**
+ * Keeps track of the fingerprint of the last status successfully reported to the Control Plane for each resource, so
+ * that a status is sent again only if it has changed or if the last report is older than a maximum staleness.
+ */
+class StatusReports {
+    /**
+     * Fields that change on every computation of an otherwise unchanged status, hence not part of the fingerprint.
+     */
+    private static final Set<String> VOLATILE_FIELDS = Set.of(MetaV1Condition.JSON_PROPERTY_LAST_TRANSITION_TIME);
+
+    private final ConcurrentMap<String, Report> reports;
+
+    StatusReports() {
+        this.reports = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param  status the status.
+     * @return        the fingerprint of the given status, ignoring volatile fields such as condition timestamps.
+     */
+    static long fingerprint(Object status) {
+        final JsonNode node = Serialization.jsonMapper().valueToTree(status);
+        strip(node);
+
+        final CRC32 crc32 = new CRC32();
+        crc32.update(node.toString().getBytes(StandardCharsets.UTF_8));
+
+        return crc32.getValue();
+    }
+
+    /**
+     * Determine if a status should be reported.
+     *
+     * @param  id           the id of the resource.
+     * @param  fingerprint  the fingerprint of the status.
+     * @param  now          the current time.
+     * @param  maxStaleness the maximum time after which an unchanged status is reported again, zero to always report.
+     * @return              true if the status should be reported.
+     */
+    boolean isDue(String id, long fingerprint, Instant now, Duration maxStaleness) {
+        if (maxStaleness.isZero()) {
+            return true;
+        }
+
+        final Report report = reports.get(id);
+        if (report == null || report.fingerprint != fingerprint) {
+            return true;
+        }
+
+        return Duration.between(report.timestamp, now).compareTo(maxStaleness) >= 0;
+    }
+
+    /**
+     * Record a status as successfully reported.
+     *
+     * @param id          the id of the resource.
+     * @param fingerprint the fingerprint of the status.
+     * @param now         the current time.
+     */
+    void reported(String id, long fingerprint, Instant now) {
+        reports.put(id, new Report(fingerprint, now));
+    }
+
+    /**
+     * Forget about a resource.
+     *
+     * @param id the id of the resource.
+     */
+    void remove(String id) {
+        reports.remove(id);
+    }
+
+    int size() {
+        return reports.size();
+    }
+
+    private static void strip(JsonNode node) {
+        if (node instanceof ObjectNode) {
+            ((ObjectNode) node).remove(VOLATILE_FIELDS);
+        }
+
+        node.forEach(StatusReports::strip);
+    }
+
+    private static final class Report {
+        final long fingerprint;
+        final Instant timestamp;
+
+        Report(long fingerprint, Instant timestamp) {
+            this.fingerprint = fingerprint;
+            this.timestamp = timestamp;
+        }
+    }
+}
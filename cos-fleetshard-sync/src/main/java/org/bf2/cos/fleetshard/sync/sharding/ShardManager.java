@@ -0,0 +1,291 @@
+package org.bf2.cos.fleetshard.sync.sharding;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.bf2.cos.fleetshard.support.Service;
+import org.bf2.cos.fleetshard.support.resources.Resources;
+import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
+import org.bf2.cos.fleetshard.sync.FleetShardSyncScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.utils.KubernetesResourceUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Splits the connector namespaces among the replicas of the synchronizer when the sharded mode is enabled.
+ * </p>
+ * Each replica holds a {@link Lease} that it renews periodically, the replicas holding a live lease form the group and
+ * the buckets the namespaces are hashed to are assigned to them with {@link Shards}. The assignment is recomputed on
+ * every renewal and the registered listeners are notified whenever the buckets owned by this replica change, i.e.
+ * when a replica joins or leaves the group.
+ * </p>
+ * When the sharded mode is disabled, this replica owns everything.
+ */
+@ApplicationScoped
+public class ShardManager implements Service {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardManager.class);
+
+    private static final String JOB_ID = "cos.sharding.renew";
+    public static final String METRICS_BUCKETS = "sharding.buckets";
+    public static final String METRICS_MEMBERS = "sharding.members";
+
+    @Inject
+    KubernetesClient kubernetesClient;
+    @Inject
+    FleetShardSyncConfig config;
+    @Inject
+    FleetShardSyncScheduler scheduler;
+    @Inject
+    MeterRegistry registry;
+
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile String memberId;
+    private volatile Membership membership = Membership.EMPTY;
+    private volatile Instant renewedAt;
+
+    @Override
+    public void start() throws Exception {
+        if (!isEnabled()) {
+            return;
+        }
+
+        memberId = config.sharding().memberId()
+            .or(() -> Optional.ofNullable(System.getenv("HOSTNAME")))
+            .orElseGet(Resources::uid);
+
+        LOGGER.info("Starting shard manager (member: {}, buckets: {})", memberId, config.sharding().buckets());
+
+        Gauge.builder(config.metrics().baseName() + "." + METRICS_BUCKETS, this, m -> m.membership.buckets.size())
+            .register(registry);
+        Gauge.builder(config.metrics().baseName() + "." + METRICS_MEMBERS, this, m -> m.membership.members.size())
+            .register(registry);
+
+        renew();
+
+        scheduler.schedule(
+            JOB_ID,
+            this::renew,
+            config.sharding().renewInterval(),
+            FleetShardSyncScheduler.Mode.FIXED_DELAY);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        if (!isEnabled()) {
+            return;
+        }
+
+        scheduler.shutdownQuietly(JOB_ID);
+
+        // release the lease so the other replicas take over the buckets of this one right away instead of waiting
+        // for the lease to expire
+        try {
+            kubernetesClient.resources(Lease.class)
+                .inNamespace(config.namespace())
+                .withName(leaseName())
+                .delete();
+        } catch (Exception e) {
+            LOGGER.warn("Failure releasing lease {}", leaseName(), e);
+        }
+
+        membership = Membership.EMPTY;
+    }
+
+    public boolean isEnabled() {
+        return config.sharding().enabled();
+    }
+
+    public String getMemberId() {
+        return memberId;
+    }
+
+    /**
+     * Register a listener to be notified when the buckets owned by this replica change.
+     *
+     * @param listener the listener.
+     */
+    public void onRebalance(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param  namespaceId the id of the connector namespace.
+     * @return             true if the namespace is assigned to this replica.
+     */
+    public boolean owns(String namespaceId) {
+        if (!isEnabled()) {
+            return true;
+        }
+        if (namespaceId == null) {
+            return false;
+        }
+
+        return membership.buckets.contains(Shards.bucket(namespaceId, config.sharding().buckets()));
+    }
+
+    /**
+     * @return true if this replica is in charge of the cluster wide tasks, which is the case for the member of the
+     *         group with the lowest id.
+     */
+    public boolean isCoordinator() {
+        if (!isEnabled()) {
+            return true;
+        }
+
+        final List<String> members = membership.members;
+        return !members.isEmpty() && Objects.equals(memberId, members.get(0));
+    }
+
+    /**
+     * @return the shards owned by this replica, as values of the {@link Resources#LABEL_SHARD} label.
+     */
+    public Set<String> getOwnedShards() {
+        return membership.buckets.stream()
+            .map(String::valueOf)
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Label a resource with the shard of the connector namespace it belongs to, so the replica owning the namespace
+     * can filter it in its informers.
+     *
+     * @param resource    the resource.
+     * @param namespaceId the id of the connector namespace.
+     */
+    public void label(HasMetadata resource, String namespaceId) {
+        if (isEnabled()) {
+            Resources.setLabel(
+                resource,
+                Resources.LABEL_SHARD,
+                String.valueOf(Shards.bucket(namespaceId, config.sharding().buckets())));
+        }
+    }
+
+    void renew() {
+        final Instant now = Instant.now();
+
+        Membership next;
+
+        try {
+            kubernetesClient.resources(Lease.class)
+                .inNamespace(config.namespace())
+                .withName(leaseName())
+                .createOrReplace(new LeaseBuilder()
+                    .withNewMetadata()
+                    .withName(leaseName())
+                    .withNamespace(config.namespace())
+                    .addToLabels(Resources.LABEL_CLUSTER_ID, config.cluster().id())
+                    .addToLabels(Resources.LABEL_KUBERNETES_COMPONENT, Resources.COMPONENT_SYNC)
+                    .endMetadata()
+                    .withNewSpec()
+                    .withHolderIdentity(memberId)
+                    .withLeaseDurationSeconds((int) config.sharding().leaseDuration().toSeconds())
+                    .withRenewTime(ZonedDateTime.ofInstant(now, ZoneOffset.UTC))
+                    .endSpec()
+                    .build());
+
+            renewedAt = now;
+
+            final List<String> members = kubernetesClient.resources(Lease.class)
+                .inNamespace(config.namespace())
+                .withLabel(Resources.LABEL_CLUSTER_ID, config.cluster().id())
+                .withLabel(Resources.LABEL_KUBERNETES_COMPONENT, Resources.COMPONENT_SYNC)
+                .list()
+                .getItems()
+                .stream()
+                .filter(lease -> isLive(lease, now))
+                .map(lease -> lease.getSpec().getHolderIdentity())
+                .sorted()
+                .distinct()
+                .collect(Collectors.toList());
+
+            next = new Membership(
+                members,
+                Shards.assign(memberId, members, config.sharding().buckets()));
+
+        } catch (Exception e) {
+            LOGGER.warn("Failure renewing lease {}", leaseName(), e);
+
+            final Instant last = renewedAt;
+            if (last != null && Duration.between(last, now).compareTo(config.sharding().leaseDuration()) < 0) {
+                return;
+            }
+
+            // the lease of this replica may have expired, so its buckets may have already been taken over by others
+            next = Membership.EMPTY;
+        }
+
+        final Membership previous = membership;
+        membership = next;
+
+        if (!previous.buckets.equals(next.buckets)) {
+            LOGGER.info("Shards rebalanced (member: {}, members: {}, buckets: {})",
+                memberId,
+                next.members,
+                next.buckets);
+
+            for (Runnable listener : listeners) {
+                try {
+                    listener.run();
+                } catch (Exception e) {
+                    LOGGER.warn("Failure notifying rebalance", e);
+                }
+            }
+        }
+    }
+
+    private boolean isLive(Lease lease, Instant now) {
+        if (lease.getSpec() == null
+            || lease.getSpec().getHolderIdentity() == null
+            || lease.getSpec().getRenewTime() == null) {
+            return false;
+        }
+        if (Objects.equals(memberId, lease.getSpec().getHolderIdentity())) {
+            return true;
+        }
+
+        final Duration duration = lease.getSpec().getLeaseDurationSeconds() != null
+            ? Duration.ofSeconds(lease.getSpec().getLeaseDurationSeconds())
+            : config.sharding().leaseDuration();
+
+        return lease.getSpec().getRenewTime().toInstant().plus(duration).isAfter(now);
+    }
+
+    private String leaseName() {
+        return KubernetesResourceUtil.sanitizeName("cos-fleetshard-sync-" + memberId);
+    }
+
+    private static final class Membership {
+        static final Membership EMPTY = new Membership(Collections.emptyList(), Collections.emptySortedSet());
+
+        final List<String> members;
+        final SortedSet<Integer> buckets;
+
+        Membership(List<String> members, SortedSet<Integer> buckets) {
+            this.members = members;
+            this.buckets = buckets;
+        }
+    }
+}
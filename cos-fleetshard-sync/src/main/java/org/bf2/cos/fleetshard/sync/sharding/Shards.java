@@ -0,0 +1,96 @@
+package org.bf2.cos.fleetshard.sync.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * Consistent hashing of connector namespaces to buckets, and of buckets to the members of the sync group.
+ * </p>
+ * Namespaces are hashed to a fixed number of buckets, then each bucket is assigned to a member with rendezvous
+ * hashing, so that when a member joins or leaves the group only the buckets it gains or loses move, and every member
+ * computes the same assignment out of the same set of members without any further coordination.
+ */
+public final class Shards {
+    private Shards() {
+    }
+
+    /**
+     * @param  namespaceId the id of the connector namespace.
+     * @param  buckets     the number of buckets.
+     * @return             the bucket the namespace belongs to.
+     */
+    public static int bucket(String namespaceId, int buckets) {
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("The number of buckets must be positive: " + buckets);
+        }
+
+        return (int) (crc32(namespaceId) % buckets);
+    }
+
+    /**
+     * @param  member  the member to compute the assignment for.
+     * @param  members the members of the group.
+     * @param  buckets the number of buckets.
+     * @return         the buckets assigned to the given member, empty if it is not a member of the group.
+     */
+    public static SortedSet<Integer> assign(String member, Collection<String> members, int buckets) {
+        if (!members.contains(member)) {
+            return Collections.emptySortedSet();
+        }
+
+        final SortedSet<Integer> answer = new TreeSet<>();
+
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            if (member.equals(owner(bucket, members))) {
+                answer.add(bucket);
+            }
+        }
+
+        return answer;
+    }
+
+    /**
+     * @param  bucket  the bucket.
+     * @param  members the members of the group.
+     * @return         the member the bucket is assigned to, null if the group is empty.
+     */
+    public static String owner(int bucket, Collection<String> members) {
+        String owner = null;
+        long max = 0;
+
+        for (String member : members) {
+            final long weight = weight(member, bucket);
+
+            // ties are broken by member name so all the members agree on the owner
+            if (owner == null || weight > max || (weight == max && member.compareTo(owner) < 0)) {
+                owner = member;
+                max = weight;
+            }
+        }
+
+        return owner;
+    }
+
+    private static long weight(String member, int bucket) {
+        // murmur3 finalizer, to spread the combination of the member hash and of the bucket over the whole range
+        long h = (crc32(member) << 32) | (bucket & 0xffffffffL);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+
+        return h;
+    }
+
+    private static long crc32(String value) {
+        final CRC32 crc = new CRC32();
+        crc.update(value.getBytes(StandardCharsets.UTF_8));
+
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,88 @@
+package org.bf2.cos.fleetshard.sync;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+public class FleetShardSyncSchedulerTest {
+
+    @Test
+    void overlappingRunsAreSkipped() throws Exception {
+        FleetShardSyncScheduler scheduler = scheduler();
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch runs = new CountDownLatch(3);
+
+        try {
+            scheduler.schedule("test", () -> {
+                if (running.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                try {
+                    Thread.sleep(120);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                    runs.countDown();
+                }
+            }, Duration.ofMillis(50), FleetShardSyncScheduler.Mode.FIXED_RATE);
+
+            assertThat(runs.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            scheduler.shutdown("test");
+            scheduler.destroy();
+        }
+
+        assertThat(overlaps).hasValue(0);
+        assertThat(scheduler.registry.get("base." + FleetShardSyncScheduler.METRICS_JOB_SKIPPED).counter().count())
+            .isGreaterThan(0);
+        assertThat(scheduler.registry.get("base." + FleetShardSyncScheduler.METRICS_JOB_DURATION).timer().count())
+            .isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void zeroIntervalIsNotScheduled() {
+        FleetShardSyncScheduler scheduler = scheduler();
+
+        try {
+            scheduler.schedule("test", () -> {
+            }, Duration.ZERO);
+
+            assertThat(scheduler.registry.find("base." + FleetShardSyncScheduler.METRICS_JOB_DURATION).timer())
+                .isNull();
+        } finally {
+            scheduler.destroy();
+        }
+    }
+
+    private static FleetShardSyncScheduler scheduler() {
+        FleetShardSyncConfig config = Mockito.mock(FleetShardSyncConfig.class);
+        FleetShardSyncConfig.Metrics metrics = Mockito.mock(FleetShardSyncConfig.Metrics.class);
+        FleetShardSyncConfig.Scheduler scheduler = Mockito.mock(FleetShardSyncConfig.Scheduler.class);
+
+        when(config.metrics()).thenReturn(metrics);
+        when(metrics.baseName()).thenReturn("base");
+        when(config.scheduler()).thenReturn(scheduler);
+        when(scheduler.threads()).thenReturn(2);
+        when(scheduler.mode()).thenReturn(FleetShardSyncScheduler.Mode.FIXED_DELAY);
+        when(scheduler.jitter()).thenReturn(0.1);
+
+        FleetShardSyncScheduler answer = new FleetShardSyncScheduler();
+        answer.config = config;
+        answer.registry = new SimpleMeterRegistry();
+        answer.init();
+
+        return answer;
+    }
+}
@@ -0,0 +1,50 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccessTokenTest {
+
+    @Test
+    void expirationFromClaim() {
+        final Instant now = Instant.ofEpochSecond(1_000);
+        final AccessToken token = AccessToken.of(jwt("{\"sub\":\"cos\",\"exp\":1100}"), 2_000L, now);
+
+        assertThat(token.getExpiresAt()).isEqualTo(Instant.ofEpochSecond(1_100));
+        assertThat(token.refreshAt(0.8)).isEqualTo(Instant.ofEpochSecond(1_080));
+        assertThat(token.isExpired(now)).isFalse();
+        assertThat(token.isExpired(Instant.ofEpochSecond(1_100))).isTrue();
+    }
+
+    @Test
+    void expirationFromEndpoint() {
+        final Instant now = Instant.ofEpochSecond(1_000);
+        final AccessToken token = AccessToken.of("opaque_token", 1_010L, now);
+
+        assertThat(token.getExpiresAt()).isEqualTo(Instant.ofEpochSecond(1_010));
+        assertThat(token.refreshAt(0.5)).isEqualTo(Instant.ofEpochSecond(1_005));
+    }
+
+    @Test
+    void unknownExpiration() {
+        final AccessToken token = AccessToken.of("opaque_token", null, Instant.now());
+
+        assertThat(token.getExpiresAt()).isNull();
+        assertThat(token.refreshAt(0.8)).isNull();
+        assertThat(token.isExpired(Instant.now().plusSeconds(3600))).isFalse();
+    }
+
+    private static String jwt(String payload) {
+        final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+        return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8))
+            + "."
+            + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+            + ".signature";
+    }
+}
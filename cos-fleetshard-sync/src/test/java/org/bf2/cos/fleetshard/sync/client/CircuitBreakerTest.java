@@ -0,0 +1,107 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+
+import javax.ws.rs.ProcessingException;
+
+import org.junit.jupiter.api.Test;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+
+        breaker.onFailure(acquire(breaker));
+        breaker.onSuccess(acquire(breaker));
+        breaker.onFailure(acquire(breaker));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.onFailure(acquire(breaker));
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.isCallPermitted()).isFalse();
+        assertThat(breaker.tryAcquire()).isEqualTo(CircuitBreaker.NOT_PERMITTED);
+    }
+
+    @Test
+    void probesWhenHalfOpen() {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ZERO);
+
+        breaker.onFailure(acquire(breaker));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // the open delay has elapsed, a single probe is let through
+        long probe = acquire(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(CircuitBreaker.NOT_PERMITTED);
+
+        breaker.onFailure(probe);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        breaker.onSuccess(acquire(breaker));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void lateSuccessDoesNotCloseTheCircuit() {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMinutes(1));
+
+        // a request is started while the circuit is closed, and another one opens the circuit
+        long late = acquire(breaker);
+        breaker.onFailure(acquire(breaker));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        breaker.onSuccess(late);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.isCallPermitted()).isFalse();
+    }
+
+    @Test
+    void lateFailureDoesNotDelayTheProbe() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(200));
+
+        // a request is started while the circuit is closed, and another one opens the circuit
+        long late = acquire(breaker);
+        breaker.onFailure(acquire(breaker));
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        Thread.sleep(150);
+        breaker.onFailure(late);
+        Thread.sleep(100);
+
+        // the open delay still runs from the time the circuit opened
+        assertThat(breaker.isCallPermitted()).isTrue();
+        assertThat(breaker.tryAcquire()).isNotEqualTo(CircuitBreaker.NOT_PERMITTED);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void onlyUnavailabilityIsAFailure() {
+        assertThat(FleetManagerClient.isUnavailable(new FleetManagerClientException(new RuntimeException(), 503)))
+            .isTrue();
+        assertThat(FleetManagerClient.isUnavailable(new FleetManagerClientException(new RuntimeException(), 410)))
+            .isFalse();
+        assertThat(FleetManagerClient.isUnavailable(new FleetManagerClientException(
+            new ProcessingException(new ConnectException()))))
+            .isTrue();
+        assertThat(FleetManagerClient.isUnavailable(new FleetManagerClientException(new IllegalStateException())))
+            .isFalse();
+        assertThat(FleetManagerClient.isUnavailable(new FleetManagerClientException(
+            new KubernetesClientException("API server timeout", new SocketTimeoutException()))))
+            .isFalse();
+    }
+
+    private static long acquire(CircuitBreaker breaker) {
+        long permit = breaker.tryAcquire();
+        assertThat(permit).isNotEqualTo(CircuitBreaker.NOT_PERMITTED);
+        return permit;
+    }
+}
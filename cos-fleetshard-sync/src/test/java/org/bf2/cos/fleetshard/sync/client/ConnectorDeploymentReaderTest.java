@@ -0,0 +1,64 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bf2.cos.fleet.manager.model.ConnectorDeployment;
+import org.bf2.cos.fleetshard.support.resources.Secrets;
+import org.junit.jupiter.api.Test;
+
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.utils.Serialization;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConnectorDeploymentReaderTest {
+
+    @Test
+    void itemsAreStreamed() throws Exception {
+        String json = "{"
+            + "\"kind\": \"ConnectorDeploymentList\","
+            + "\"page\": 1,"
+            + "\"items\": ["
+            + "  {\"id\": \"d1\", \"metadata\": {\"resource_version\": 1}, \"spec\": {"
+            + "    \"connector_id\": \"c1\","
+            + "    \"connector_spec\": { \"foo\": \"bar\", \"nested\": { \"values\": [ 1, 2.50, 1e3 ] }, \"a\": 0.1 },"
+            + "    \"shard_metadata\": { \"operators\": [] }"
+            + "  }},"
+            + "  {\"id\": \"d2\", \"metadata\": {\"resource_version\": 2}, \"spec\": {"
+            + "    \"connector_id\": \"c2\""
+            + "  }}"
+            + "],"
+            + "\"size\": 2,"
+            + "\"total\": 5"
+            + "}";
+
+        List<ConnectorDeployment> items = new ArrayList<>();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        ConnectorDeploymentReader.Page page = new ConnectorDeploymentReader(Serialization.jsonMapper()).read(
+            new ByteArrayInputStream(bytes),
+            items::add);
+
+        assertThat(page.items).isEqualTo(2);
+        assertThat(page.total).isEqualTo(5);
+        assertThat(page.bytes).isEqualTo(bytes.length);
+
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).getId()).isEqualTo("d1");
+        assertThat(items.get(0).getMetadata().getResourceVersion()).isEqualTo(1L);
+        assertThat(items.get(0).getSpec().getShardMetadata().withArray("operators").size()).isZero();
+        assertThat(items.get(1).getId()).isEqualTo("d2");
+        assertThat(items.get(1).getSpec().getConnectorSpec()).isNull();
+
+        Secret secret = Secrets.set(
+            new Secret(),
+            Secrets.SECRET_ENTRY_CONNECTOR,
+            items.get(0).getSpec().getConnectorSpec());
+
+        assertThat(Secrets.extract(secret, Secrets.SECRET_ENTRY_CONNECTOR, String.class))
+            .isEqualTo("{\"foo\":\"bar\",\"nested\":{\"values\":[1,2.50,1e3]},\"a\":0.1}");
+    }
+}
@@ -0,0 +1,58 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PageSizeTunerTest {
+
+    @Test
+    void sizeFollowsLatency() {
+        PageSizeTuner tuner = new PageSizeTuner(100, 10, 500, Duration.ofSeconds(1));
+
+        assertThat(tuner.get()).isEqualTo(100);
+
+        // 100 items in 200ms, 2ms per item -> 500 items fit the target
+        tuner.record(Duration.ofMillis(200), 100);
+        assertThat(tuner.get()).isEqualTo(500);
+
+        // a slow page reduces the size
+        for (int i = 0; i < 20; i++) {
+            tuner.record(Duration.ofSeconds(5), 100);
+        }
+        assertThat(tuner.get()).isEqualTo(20);
+    }
+
+    @Test
+    void sizeIsBounded() {
+        PageSizeTuner tuner = new PageSizeTuner(1000, 10, 500, Duration.ofSeconds(1));
+        assertThat(tuner.get()).isEqualTo(500);
+
+        tuner.record(Duration.ofSeconds(60), 10);
+        assertThat(tuner.get()).isEqualTo(10);
+
+        tuner.record(Duration.ofMillis(1), 0);
+        assertThat(tuner.get()).isEqualTo(10);
+    }
+
+    @Test
+    void sizeFollowsBytes() {
+        PageSizeTuner tuner = new PageSizeTuner(100, 10, 500, Duration.ofSeconds(1), 100_000);
+
+        // 100 items in 100ms, fast enough for 500 items, but 1000 bytes per item -> 100 items fit the target
+        tuner.record(Duration.ofMillis(100), 100, 100_000);
+        assertThat(tuner.get()).isEqualTo(100);
+
+        // smaller items allow larger pages, up to what the latency allows
+        for (int i = 0; i < 20; i++) {
+            tuner.record(Duration.ofMillis(100), 100, 10_000);
+        }
+        assertThat(tuner.get()).isEqualTo(500);
+
+        // pages of unknown size do not affect the bytes estimate
+        tuner.record(Duration.ofMillis(100), 100, -1);
+        assertThat(tuner.get()).isEqualTo(500);
+    }
+}
@@ -0,0 +1,103 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PagedRequestTest {
+    private static final int PAGE_SIZE = 3;
+
+    private ExecutorService executor;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 4 })
+    void pagesAreConsumedInOrder(int prefetch) throws Exception {
+        final int total = 10;
+        final List<Integer> requested = Collections.synchronizedList(new ArrayList<>());
+        final List<Integer> consumed = new ArrayList<>();
+
+        long count = request(prefetch).run(
+            page -> {
+                requested.add(page);
+                return page(page, total);
+            },
+            consumed::addAll);
+
+        assertThat(count).isEqualTo(total);
+        assertThat(consumed).containsExactlyElementsOf(IntStream.range(0, total).boxed().collect(Collectors.toList()));
+        assertThat(requested).containsExactlyInAnyOrder(1, 2, 3, 4);
+        assertThat(registry.get("pages.provision").timer().count()).isEqualTo(4);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1 })
+    void emptyResult(int prefetch) throws Exception {
+        final List<Integer> consumed = new ArrayList<>();
+
+        long count = request(prefetch).run(
+            page -> new PagedRequest.Page<>(List.of(), 0),
+            consumed::addAll);
+
+        assertThat(count).isZero();
+        assertThat(consumed).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1 })
+    void failuresArePropagated(int prefetch) {
+        assertThatThrownBy(() -> {
+            request(prefetch).run(
+                page -> {
+                    if (page == 2) {
+                        throw new IllegalStateException("page 2");
+                    }
+                    return page(page, 10);
+                },
+                items -> {
+                });
+        }).isInstanceOf(IllegalStateException.class).hasMessage("page 2");
+    }
+
+    private PagedRequest<Integer> request(int prefetch) {
+        return new PagedRequest<>(
+            executor,
+            prefetch,
+            registry.timer("pages.wait"),
+            registry.timer("pages.provision"));
+    }
+
+    private static PagedRequest.Page<Integer> page(int page, int total) {
+        int from = (page - 1) * PAGE_SIZE;
+        int to = Math.min(from + PAGE_SIZE, total);
+
+        return new PagedRequest.Page<>(
+            IntStream.range(Math.min(from, to), to).boxed().collect(Collectors.toList()),
+            total);
+    }
+}
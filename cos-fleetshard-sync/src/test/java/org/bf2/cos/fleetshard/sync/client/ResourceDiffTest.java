@@ -0,0 +1,110 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.fabric8.kubernetes.api.model.ManagedFieldsEntryBuilder;
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourceDiffTest {
+
+    @Test
+    void serverFieldsAreIgnored() {
+        Namespace desired = new NamespaceBuilder()
+            .withNewMetadata()
+            .withName("ns")
+            .addToLabels("foo", "bar")
+            .endMetadata()
+            .build();
+
+        Namespace current = new NamespaceBuilder()
+            .withNewMetadata()
+            .withName("ns")
+            .withResourceVersion("123")
+            .withUid("uid")
+            .withCreationTimestamp("2022-01-01T00:00:00Z")
+            .withManagedFields(List.of(new ManagedFieldsEntryBuilder().withManager("kubectl").build()))
+            .addToLabels("foo", "bar")
+            .addToLabels("kubernetes.io/metadata.name", "ns")
+            .endMetadata()
+            .withNewSpec()
+            .withFinalizers("kubernetes")
+            .endSpec()
+            .withNewStatus()
+            .withPhase("Active")
+            .endStatus()
+            .build();
+
+        assertThat(ResourceDiff.hasChanges(desired, current)).isFalse();
+    }
+
+    @Test
+    void changesAreDetected() {
+        Secret desired = new SecretBuilder()
+            .withNewMetadata()
+            .withName("s")
+            .withNamespace("ns")
+            .addToLabels("uow", "2")
+            .endMetadata()
+            .withData(Map.of("key", "dmFs"))
+            .build();
+
+        Secret sameLabels = new SecretBuilder(desired)
+            .withData(Map.of("key", "b3RoZXI="))
+            .build();
+
+        Secret sameData = new SecretBuilder(desired)
+            .editMetadata()
+            .addToLabels("uow", "1")
+            .endMetadata()
+            .build();
+
+        assertThat(ResourceDiff.hasChanges(desired, null)).isTrue();
+        assertThat(ResourceDiff.hasChanges(desired, desired)).isTrue();
+        assertThat(ResourceDiff.hasChanges(desired, sameLabels)).isTrue();
+        assertThat(ResourceDiff.hasChanges(desired, sameData)).isTrue();
+        assertThat(ResourceDiff.hasChanges(desired, new SecretBuilder(desired).build())).isFalse();
+    }
+
+    @Test
+    void removedLabelsAndAnnotationsAreDetected() {
+        Namespace desired = new NamespaceBuilder()
+            .withNewMetadata()
+            .withName("ns")
+            .addToLabels("foo", "bar")
+            .addToAnnotations("cos.bf2.org/namespace.quota", "true")
+            .endMetadata()
+            .build();
+
+        Namespace extraLabel = new NamespaceBuilder(desired)
+            .editMetadata()
+            .addToLabels("cos.bf2.org/shard", "1")
+            .endMetadata()
+            .build();
+
+        Namespace extraAnnotation = new NamespaceBuilder(desired)
+            .editMetadata()
+            .addToAnnotations("cos.bf2.org/namespace.expiration", "2022-01-01T00:00:00Z")
+            .endMetadata()
+            .build();
+
+        Namespace platformKeys = new NamespaceBuilder(desired)
+            .editMetadata()
+            .addToLabels("kubernetes.io/metadata.name", "ns")
+            .addToAnnotations("openshift.io/sa.scc.mcs", "s0:c1,c0")
+            .addToAnnotations("kubectl.kubernetes.io/last-applied-configuration", "{}")
+            .endMetadata()
+            .build();
+
+        assertThat(ResourceDiff.hasChanges(desired, extraLabel)).isTrue();
+        assertThat(ResourceDiff.hasChanges(desired, extraAnnotation)).isTrue();
+        assertThat(ResourceDiff.hasChanges(desired, platformKeys)).isFalse();
+    }
+}
@@ -0,0 +1,49 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RetryBudgetTest {
+
+    @Test
+    void retriesAreBounded() {
+        RetryBudget budget = new RetryBudget(0.5, 2, Duration.ZERO);
+
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isFalse();
+
+        budget.deposit();
+        assertThat(budget.tryRetry()).isFalse();
+
+        budget.deposit();
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isFalse();
+    }
+
+    @Test
+    void budgetIsCapped() {
+        RetryBudget budget = new RetryBudget(1, 2, Duration.ZERO);
+
+        for (int i = 0; i < 10; i++) {
+            budget.deposit();
+        }
+
+        assertThat(budget.getTokens()).isEqualTo(2);
+    }
+
+    @Test
+    void budgetIsReplenished() throws Exception {
+        RetryBudget budget = new RetryBudget(0, 1, Duration.ofMillis(50));
+
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isFalse();
+
+        Thread.sleep(100);
+
+        assertThat(budget.tryRetry()).isTrue();
+    }
+}
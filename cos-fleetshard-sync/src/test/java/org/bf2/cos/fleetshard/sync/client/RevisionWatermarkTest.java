@@ -0,0 +1,161 @@
+package org.bf2.cos.fleetshard.sync.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RevisionWatermarkTest {
+
+    @Test
+    void revisionIsRaisedByEvents() {
+        Map<String, Item> cache = new HashMap<>();
+        RevisionWatermark<Item> watermark = watermark(cache);
+
+        assertThat(watermark.get()).isZero();
+
+        add(watermark, cache, new Item("d1", 3));
+        add(watermark, cache, new Item("d2", 5));
+        add(watermark, cache, new Item("d3", 4));
+
+        assertThat(watermark.get()).isEqualTo(5);
+
+        update(watermark, cache, new Item("d3", 7));
+
+        assertThat(watermark.get()).isEqualTo(7);
+    }
+
+    @Test
+    void revisionIsRecomputedWhenTheHighestIsRemoved() {
+        Map<String, Item> cache = new HashMap<>();
+        RevisionWatermark<Item> watermark = watermark(cache);
+
+        add(watermark, cache, new Item("d1", 3));
+        add(watermark, cache, new Item("d2", 5));
+
+        // removing a resource other than the highest one does not change the revision
+        delete(watermark, cache, "d1");
+        assertThat(watermark.get()).isEqualTo(5);
+
+        add(watermark, cache, new Item("d1", 3));
+        delete(watermark, cache, "d2");
+        assertThat(watermark.get()).isEqualTo(3);
+
+        delete(watermark, cache, "d1");
+        assertThat(watermark.get()).isZero();
+    }
+
+    @Test
+    void revisionIsRecomputedWhenTheHighestMovesBack() {
+        Map<String, Item> cache = new HashMap<>();
+        RevisionWatermark<Item> watermark = watermark(cache);
+
+        add(watermark, cache, new Item("d1", 3));
+        add(watermark, cache, new Item("d2", 5));
+
+        update(watermark, cache, new Item("d2", 2));
+
+        assertThat(watermark.get()).isEqualTo(3);
+    }
+
+    @Test
+    void revisionIsSeeded() {
+        Map<String, Item> cache = new HashMap<>();
+        RevisionWatermark<Item> watermark = watermark(cache);
+
+        // i.e. the revision persisted by a previous run
+        watermark.update(10);
+        add(watermark, cache, new Item("d1", 8));
+
+        assertThat(watermark.get()).isEqualTo(10);
+
+        watermark.update(9);
+        assertThat(watermark.get()).isEqualTo(10);
+
+        add(watermark, cache, new Item("d2", 12));
+        assertThat(watermark.get()).isEqualTo(12);
+    }
+
+    @Test
+    void failedRevisionsHoldTheRevision() {
+        Map<String, Item> cache = new HashMap<>();
+        RevisionWatermark<Item> watermark = watermark(cache);
+
+        add(watermark, cache, new Item("d1", 3));
+
+        // d2@5 fails while d3@6 and d4@7 succeed
+        watermark.failed("d2", 5);
+        add(watermark, cache, new Item("d3", 6));
+        watermark.applied("d3", 6);
+        add(watermark, cache, new Item("d4", 7));
+        watermark.applied("d4", 7);
+
+        assertThat(watermark.get()).isEqualTo(4);
+
+        // a lower revision of the same resource does not clear the failure
+        watermark.applied("d2", 4);
+        assertThat(watermark.get()).isEqualTo(4);
+
+        add(watermark, cache, new Item("d2", 5));
+        watermark.applied("d2", 5);
+        assertThat(watermark.get()).isEqualTo(7);
+
+        watermark.failed("d4", 8);
+        assertThat(watermark.get()).isEqualTo(7);
+
+        watermark.failed("d1", 2);
+        watermark.clearFailures();
+        assertThat(watermark.get()).isEqualTo(7);
+    }
+
+    @Test
+    void recomputeDoesNotLowerAConcurrentUpdate() {
+        Map<String, Item> cache = new HashMap<>();
+        AtomicReference<RevisionWatermark<Item>> ref = new AtomicReference<>();
+
+        // the revision is raised by another informer event while the cache is being scanned
+        RevisionWatermark<Item> watermark = new RevisionWatermark<>(i -> i.revision, () -> {
+            ref.get().update(9);
+            return new ArrayList<>(cache.values());
+        });
+
+        ref.set(watermark);
+
+        add(watermark, cache, new Item("d1", 3));
+        add(watermark, cache, new Item("d2", 5));
+        delete(watermark, cache, "d2");
+
+        assertThat(watermark.get()).isEqualTo(9);
+    }
+
+    private static RevisionWatermark<Item> watermark(Map<String, Item> cache) {
+        return new RevisionWatermark<>(i -> i.revision, cache::values);
+    }
+
+    private static void add(RevisionWatermark<Item> watermark, Map<String, Item> cache, Item item) {
+        cache.put(item.id, item);
+        watermark.onAdd(item);
+    }
+
+    private static void update(RevisionWatermark<Item> watermark, Map<String, Item> cache, Item item) {
+        watermark.onUpdate(cache.put(item.id, item), item);
+    }
+
+    private static void delete(RevisionWatermark<Item> watermark, Map<String, Item> cache, String id) {
+        watermark.onDelete(cache.remove(id), false);
+    }
+
+    private static final class Item {
+        final String id;
+        final long revision;
+
+        Item(String id, long revision) {
+            this.id = id;
+            this.revision = revision;
+        }
+    }
+}
@@ -23,6 +23,7 @@ import org.bf2.cos.fleetshard.api.ManagedConnector;
 import org.bf2.cos.fleetshard.api.ManagedConnectorCluster;
 import org.bf2.cos.fleetshard.api.ManagedConnectorClusterBuilder;
 import org.bf2.cos.fleetshard.api.ManagedConnectorClusterSpecBuilder;
+import org.bf2.cos.fleetshard.support.OperatorIndex;
 import org.bf2.cos.fleetshard.support.resources.Clusters;
 import org.bf2.cos.fleetshard.support.resources.Connectors;
 import org.bf2.cos.fleetshard.support.resources.Resources;
@@ -30,6 +31,7 @@ import org.bf2.cos.fleetshard.support.resources.Secrets;
 import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
 import org.bf2.cos.fleetshard.sync.client.FleetManagerClient;
 import org.bf2.cos.fleetshard.sync.client.FleetShardClient;
+import org.bf2.cos.fleetshard.sync.sharding.ShardManager;
 import org.mockito.Mockito;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
@@ -185,6 +187,9 @@ public final class ConnectorTestSupport {
                 return arg;
             });
 
+        when(answer.getOperatorIndex())
+            .thenReturn(OperatorIndex.EMPTY);
+
         when(answer.getOrCreateManagedConnectorCluster())
             .thenAnswer(invocation -> {
                 return new ManagedConnectorClusterBuilder()
@@ -206,6 +211,13 @@ public final class ConnectorTestSupport {
         return answer;
     }
 
+    public static ShardManager shards() {
+        ShardManager answer = Mockito.mock(ShardManager.class);
+        when(answer.owns(any())).thenReturn(true);
+        when(answer.isCoordinator()).thenReturn(true);
+        return answer;
+    }
+
     public static FleetShardSyncConfig config() {
         FleetShardSyncConfig answer = Mockito.mock(FleetShardSyncConfig.class);
         when(answer.connectors()).thenAnswer(invocation -> {
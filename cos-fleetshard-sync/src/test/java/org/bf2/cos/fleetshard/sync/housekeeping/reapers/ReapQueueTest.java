@@ -0,0 +1,80 @@
+package org.bf2.cos.fleetshard.sync.housekeeping.reapers;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReapQueueTest {
+
+    @Test
+    void keysAreHandedOverWhenDue() {
+        final ReapQueue<String> queue = new ReapQueue<>();
+        final Instant now = Instant.now();
+
+        queue.schedule("ns2", now.plus(Duration.ofMinutes(2)));
+        queue.schedule("ns1", now.plus(Duration.ofMinutes(1)));
+
+        assertThat(queue.poll(now)).isEmpty();
+        assertThat(queue.poll(now.plus(Duration.ofMinutes(1)))).containsExactly("ns1");
+        assertThat(queue.poll(now.plus(Duration.ofMinutes(5)))).containsExactly("ns2");
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void keysAreQueuedOnceAtTheLastTime() {
+        final ReapQueue<String> queue = new ReapQueue<>();
+        final Instant now = Instant.now();
+
+        queue.schedule("ns1", now.plus(Duration.ofMinutes(10)));
+        queue.schedule("ns1", now);
+
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(queue.poll(now)).containsExactly("ns1");
+        assertThat(queue.poll(now.plus(Duration.ofMinutes(10)))).isEmpty();
+    }
+
+    @Test
+    void keysCanBePostponed() {
+        final ReapQueue<String> queue = new ReapQueue<>();
+        final Instant now = Instant.now();
+
+        queue.schedule("ns1", now.plus(Duration.ofMinutes(1)));
+        queue.schedule("ns1", now.plus(Duration.ofMinutes(5)));
+        queue.schedule("ns1", now.plus(Duration.ofMinutes(5)));
+
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(queue.poll(now.plus(Duration.ofMinutes(1)))).isEmpty();
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(queue.poll(now.plus(Duration.ofMinutes(5)))).containsExactly("ns1");
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void removedKeysAreDiscarded() {
+        final ReapQueue<String> queue = new ReapQueue<>();
+        final Instant now = Instant.now();
+
+        queue.schedule("ns1", now);
+        queue.schedule("ns2", now);
+        queue.remove("ns1");
+
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(queue.poll(now)).containsExactly("ns2");
+    }
+
+    @Test
+    void removedKeysCanBeScheduledAgain() {
+        final ReapQueue<String> queue = new ReapQueue<>();
+        final Instant now = Instant.now();
+
+        queue.schedule("ns1", now);
+        queue.remove("ns1");
+        queue.schedule("ns1", now.plus(Duration.ofMinutes(1)));
+
+        assertThat(queue.poll(now)).isEmpty();
+        assertThat(queue.poll(now.plus(Duration.ofMinutes(1)))).containsExactly("ns1");
+    }
+}
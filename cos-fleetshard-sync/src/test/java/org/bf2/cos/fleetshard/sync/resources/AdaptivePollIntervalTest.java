@@ -0,0 +1,65 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptivePollIntervalTest {
+
+    @Test
+    void shrinksOnChanges() {
+        AdaptivePollInterval interval = new AdaptivePollInterval(
+            Duration.ofSeconds(16),
+            Duration.ofSeconds(5),
+            Duration.ofSeconds(60),
+            0);
+
+        interval.record(10);
+        assertThat(interval.getInterval()).isEqualTo(Duration.ofSeconds(8));
+
+        interval.record(1);
+        interval.record(1);
+        assertThat(interval.getInterval()).isEqualTo(Duration.ofSeconds(5));
+        assertThat(interval.getEmptyStreak()).isZero();
+    }
+
+    @Test
+    void stretchesOnConsecutiveEmptyPolls() {
+        AdaptivePollInterval interval = new AdaptivePollInterval(
+            Duration.ofSeconds(15),
+            Duration.ofSeconds(5),
+            Duration.ofSeconds(60),
+            0);
+
+        interval.record(0);
+        assertThat(interval.getInterval()).isEqualTo(Duration.ofSeconds(15));
+        assertThat(interval.getEmptyStreak()).isEqualTo(1);
+
+        interval.record(0);
+        assertThat(interval.getInterval()).isEqualTo(Duration.ofSeconds(30));
+
+        interval.record(0);
+        interval.record(0);
+        assertThat(interval.getInterval()).isEqualTo(Duration.ofSeconds(60));
+        assertThat(interval.getEmptyStreak()).isEqualTo(4);
+
+        interval.record(3);
+        assertThat(interval.getInterval()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(interval.getEmptyStreak()).isZero();
+    }
+
+    @Test
+    void nextIsJittered() {
+        AdaptivePollInterval interval = new AdaptivePollInterval(
+            Duration.ofSeconds(10),
+            Duration.ofSeconds(5),
+            Duration.ofSeconds(60),
+            0.2);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(interval.next()).isBetween(Duration.ofSeconds(8), Duration.ofSeconds(12));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.util.HashMap;
+
+import org.bf2.cos.fleet.manager.model.ConnectorNamespaceState;
+import org.bf2.cos.fleetshard.api.ManagedConnector;
+import org.bf2.cos.fleetshard.support.resources.Namespaces;
+import org.bf2.cos.fleetshard.support.resources.Resources;
+import org.junit.jupiter.api.Test;
+
+import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.NamespaceBuilder;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class ClusterStatusAggregatorTest {
+
+    @Test
+    void connectorsAreCounted() {
+        ClusterStatusAggregator aggregator = new ClusterStatusAggregator();
+        aggregator.namespaceUpdated(namespace("ns1", Namespaces.STATUS_ACTIVE));
+
+        long revision = aggregator.getRevision();
+
+        aggregator.connectorUpdated(connector("ns1", "c1"));
+        aggregator.connectorUpdated(connector("ns1", "c2"));
+        aggregator.connectorUpdated(connector("ns1", "c2"));
+
+        assertThat(aggregator.getRevision()).isEqualTo(revision + 2);
+        assertThat(aggregator.namespaces()).singleElement().satisfies(ns -> {
+            assertThat(ns.getId()).isEqualTo("ns1-id");
+            assertThat(ns.getConnectorsDeployed()).isEqualTo(2);
+            assertThat(ns.getPhase()).isEqualTo(ConnectorNamespaceState.READY);
+        });
+
+        aggregator.connectorDeleted(connector("ns1", "c1"));
+        aggregator.connectorDeleted(connector("ns1", "c1"));
+
+        assertThat(aggregator.getRevision()).isEqualTo(revision + 3);
+        assertThat(aggregator.namespaces()).singleElement().satisfies(ns -> {
+            assertThat(ns.getConnectorsDeployed()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void onlyChangesBumpTheRevision() {
+        ClusterStatusAggregator aggregator = new ClusterStatusAggregator();
+
+        aggregator.namespaceUpdated(namespace("ns1", Namespaces.STATUS_ACTIVE));
+        long revision = aggregator.getRevision();
+
+        aggregator.namespaceUpdated(namespace("ns1", Namespaces.STATUS_ACTIVE));
+        assertThat(aggregator.getRevision()).isEqualTo(revision);
+
+        aggregator.namespaceUpdated(namespace("ns1", Namespaces.STATUS_TERMINATING));
+        assertThat(aggregator.getRevision()).isEqualTo(revision + 1);
+        assertThat(aggregator.namespaces()).singleElement().satisfies(ns -> {
+            assertThat(ns.getPhase()).isEqualTo(ConnectorNamespaceState.DELETING);
+        });
+
+        aggregator.namespaceDeleted(namespace("ns1", Namespaces.STATUS_TERMINATING));
+        assertThat(aggregator.getRevision()).isEqualTo(revision + 2);
+        assertThat(aggregator.namespaces()).isEmpty();
+    }
+
+    @Test
+    void publishedConnectorsAreUsedForNamespacesNotOwned() {
+        ClusterStatusAggregator aggregator = new ClusterStatusAggregator();
+
+        aggregator.namespaceUpdated(namespace("ns1", Namespaces.STATUS_ACTIVE));
+        aggregator.connectorUpdated(connector("ns1", "c1"));
+
+        Namespace ns2 = namespace("ns2", Namespaces.STATUS_ACTIVE);
+        ns2.getMetadata().getAnnotations().put(Resources.ANNOTATION_NAMESPACE_CONNECTORS, "3");
+        aggregator.namespaceUpdated(ns2);
+
+        assertThat(aggregator.unpublished("ns1-id"::equals)).containsOnly(entry("ns1", 1));
+        assertThat(aggregator.namespaces("ns1-id"::equals)).hasSize(2).allSatisfy(ns -> {
+            assertThat(ns.getConnectorsDeployed()).isEqualTo("ns1-id".equals(ns.getId()) ? 1 : 3);
+        });
+
+        Namespace ns1 = namespace("ns1", Namespaces.STATUS_ACTIVE);
+        ns1.getMetadata().getAnnotations().put(Resources.ANNOTATION_NAMESPACE_CONNECTORS, "1");
+        long revision = aggregator.getRevision();
+        aggregator.namespaceUpdated(ns1);
+
+        assertThat(aggregator.getRevision()).isEqualTo(revision + 1);
+        assertThat(aggregator.unpublished("ns1-id"::equals)).isEmpty();
+    }
+
+    private static Namespace namespace(String name, String phase) {
+        return new NamespaceBuilder()
+            .withMetadata(new ObjectMetaBuilder()
+                .withName(name)
+                .addToLabels(Resources.LABEL_NAMESPACE_ID, name + "-id")
+                .withAnnotations(new HashMap<>())
+                .build())
+            .withNewStatus()
+            .withPhase(phase)
+            .endStatus()
+            .build();
+    }
+
+    private static ManagedConnector connector(String namespace, String name) {
+        ManagedConnector answer = new ManagedConnector();
+        answer.setMetadata(new ObjectMetaBuilder()
+            .withNamespace(namespace)
+            .withName(name)
+            .build());
+
+        return answer;
+    }
+}
@@ -8,19 +8,25 @@ import org.bf2.cos.fleet.manager.model.ServiceAccount;
 import org.bf2.cos.fleetshard.api.ManagedConnector;
 import org.bf2.cos.fleetshard.api.ManagedConnectorBuilder;
 import org.bf2.cos.fleetshard.support.client.EventClient;
+import org.bf2.cos.fleetshard.support.json.JacksonUtil;
 import org.bf2.cos.fleetshard.support.metrics.MetricsRecorder;
 import org.bf2.cos.fleetshard.support.resources.Connectors;
 import org.bf2.cos.fleetshard.support.resources.Secrets;
+import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
 import org.bf2.cos.fleetshard.sync.connector.ConnectorTestSupport;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.databind.util.RawValue;
 
 import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
 import io.fabric8.kubernetes.api.model.Secret;
 import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -30,7 +36,10 @@ import static org.bf2.cos.fleetshard.support.resources.Resources.LABEL_DEPLOYMEN
 import static org.bf2.cos.fleetshard.support.resources.Resources.LABEL_DEPLOYMENT_RESOURCE_VERSION;
 import static org.bf2.cos.fleetshard.support.resources.Resources.LABEL_UOW;
 import static org.bf2.cos.fleetshard.sync.connector.ConnectorTestSupport.createDeployment;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class ConnectorProvisionerTest {
     private static final String CLUSTER_ID = UUID.randomUUID().toString();
@@ -54,6 +63,7 @@ public class ConnectorProvisionerTest {
         provisioner.fleetShard = ConnectorTestSupport.fleetShard(CLUSTER_ID, connectors, secrets);
         provisioner.fleetManager = ConnectorTestSupport.fleetManagerClient();
         provisioner.eventClient = Mockito.mock(EventClient.class);
+        provisioner.shards = ConnectorTestSupport.shards();
         provisioner.recorder = Mockito.mock(MetricsRecorder.class);
 
         //
@@ -159,6 +169,7 @@ public class ConnectorProvisionerTest {
         provisioner.fleetShard = ConnectorTestSupport.fleetShard(CLUSTER_ID, connectors, secrets);
         provisioner.fleetManager = ConnectorTestSupport.fleetManagerClient();
         provisioner.eventClient = Mockito.mock(EventClient.class);
+        provisioner.shards = ConnectorTestSupport.shards();
         provisioner.recorder = Mockito.mock(MetricsRecorder.class);
 
         final ArgumentCaptor<Secret> sc = ArgumentCaptor.forClass(Secret.class);
@@ -278,6 +289,7 @@ public class ConnectorProvisionerTest {
         provisioner.fleetShard = ConnectorTestSupport.fleetShard(CLUSTER_ID, connectors, secrets);
         provisioner.fleetManager = ConnectorTestSupport.fleetManagerClient();
         provisioner.eventClient = Mockito.mock(EventClient.class);
+        provisioner.shards = ConnectorTestSupport.shards();
         provisioner.recorder = Mockito.mock(MetricsRecorder.class);
 
         final ArgumentCaptor<Secret> sc = ArgumentCaptor.forClass(Secret.class);
@@ -361,4 +373,140 @@ public class ConnectorProvisionerTest {
             });
         });
     }
+
+    @Test
+    void skipUnchangedResources() {
+        //
+        // Given that no resources associated to the provided deployment exist
+        //
+        final ConnectorDeployment deployment = createDeployment(0);
+
+        final ConnectorDeploymentProvisioner provisioner = new ConnectorDeploymentProvisioner();
+        provisioner.config = ConnectorTestSupport.config();
+        provisioner.fleetShard = ConnectorTestSupport.fleetShard(CLUSTER_ID, List.of(), List.of());
+        provisioner.fleetManager = ConnectorTestSupport.fleetManagerClient();
+        provisioner.eventClient = Mockito.mock(EventClient.class);
+        provisioner.shards = ConnectorTestSupport.shards();
+        provisioner.recorder = Mockito.mock(MetricsRecorder.class);
+        provisioner.skipped = Mockito.mock(Counter.class);
+
+        final ArgumentCaptor<ManagedConnector> mcc = ArgumentCaptor.forClass(ManagedConnector.class);
+
+        //
+        // When the same deployment is applied twice
+        //
+        provisioner.provision(deployment);
+        provisioner.provision(deployment);
+
+        //
+        // Then resources must be written only once
+        //
+        verify(provisioner.fleetShard, times(1)).createConnector(mcc.capture());
+        verify(provisioner.fleetShard, times(1)).createSecret(any(Secret.class));
+        verify(provisioner.skipped, times(1)).increment();
+
+        final String uow = mcc.getValue().getSpec().getDeployment().getUnitOfWork();
+
+        //
+        // When a change to the deployment happen that ends up with a new resource version
+        //
+        final ConnectorDeployment newDeployment = createDeployment(1, d -> {
+            d.getSpec().setServiceAccount(deployment.getSpec().getServiceAccount());
+        });
+
+        provisioner.provision(newDeployment);
+
+        //
+        // Then resources must be written again with a new unit of work
+        //
+        verify(provisioner.fleetShard, times(2)).createConnector(mcc.capture());
+        verify(provisioner.fleetShard, times(2)).createSecret(any(Secret.class));
+        verify(provisioner.skipped, times(1)).increment();
+
+        assertThat(mcc.getValue().getSpec().getDeployment().getUnitOfWork())
+            .isNotEmpty()
+            .isNotEqualTo(uow);
+    }
+
+    @Test
+    void skipStaleRevisions() {
+        //
+        // Given a provisioner with a single worker
+        //
+        final ConnectorDeployment deployment = createDeployment(2);
+
+        final ConnectorDeploymentProvisioner provisioner = new ConnectorDeploymentProvisioner();
+        provisioner.config = ConnectorTestSupport.config();
+        provisioner.fleetShard = ConnectorTestSupport.fleetShard(CLUSTER_ID, List.of(), List.of());
+        provisioner.fleetManager = ConnectorTestSupport.fleetManagerClient();
+        provisioner.eventClient = Mockito.mock(EventClient.class);
+        provisioner.shards = ConnectorTestSupport.shards();
+        provisioner.recorder = MetricsRecorder.of(new SimpleMeterRegistry(), "provisioner");
+        provisioner.skipped = Mockito.mock(Counter.class);
+
+        final FleetShardSyncConfig.Resources resources = Mockito.mock(FleetShardSyncConfig.Resources.class);
+        when(provisioner.config.resources()).thenReturn(resources);
+        when(resources.provisionConcurrency()).thenReturn(1);
+
+        provisioner.init();
+
+        try {
+            //
+            // When an older revision of the deployment is handed over after a newer one, i.e. by a poll racing with
+            // the watch stream
+            //
+            provisioner.provisionConnectors(List.of(deployment));
+            provisioner.provisionConnectors(List.of(createDeployment(1)));
+
+            //
+            // Then the older revision must be skipped
+            //
+            final ArgumentCaptor<ManagedConnector> mcc = ArgumentCaptor.forClass(ManagedConnector.class);
+
+            verify(provisioner.fleetShard, times(1)).createConnector(mcc.capture());
+            verify(provisioner.skipped, times(1)).increment();
+
+            assertThat(mcc.getValue().getMetadata().getLabels())
+                .containsEntry(LABEL_DEPLOYMENT_RESOURCE_VERSION, "2");
+        } finally {
+            provisioner.destroy();
+        }
+    }
+
+    @Test
+    void rawConnectorSpecHasTheSameChecksum() {
+        //
+        // Given a deployment that has been applied
+        //
+        final ConnectorDeployment deployment = createDeployment(0);
+
+        final ConnectorDeploymentProvisioner provisioner = new ConnectorDeploymentProvisioner();
+        provisioner.config = ConnectorTestSupport.config();
+        provisioner.fleetShard = ConnectorTestSupport.fleetShard(CLUSTER_ID, List.of(), List.of());
+        provisioner.fleetManager = ConnectorTestSupport.fleetManagerClient();
+        provisioner.eventClient = Mockito.mock(EventClient.class);
+        provisioner.shards = ConnectorTestSupport.shards();
+        provisioner.recorder = Mockito.mock(MetricsRecorder.class);
+        provisioner.skipped = Mockito.mock(Counter.class);
+
+        provisioner.provision(deployment);
+
+        //
+        // When the same deployment is decoded as a stream, which keeps the connector spec as raw JSON text
+        //
+        final ConnectorDeployment raw = createDeployment(0, d -> {
+            d.getSpec().setServiceAccount(deployment.getSpec().getServiceAccount());
+            d.getSpec().setConnectorSpec(
+                new POJONode(new RawValue(JacksonUtil.asPrettyPrintedJson(deployment.getSpec().getConnectorSpec()))));
+        });
+
+        provisioner.provision(raw);
+
+        //
+        // Then resources must not be written again
+        //
+        verify(provisioner.fleetShard, times(1)).createConnector(any(ManagedConnector.class));
+        verify(provisioner.fleetShard, times(1)).createSecret(any(Secret.class));
+        verify(provisioner.skipped, times(1)).increment();
+    }
 }
@@ -0,0 +1,70 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.bf2.cos.fleetshard.sync.resources.ConnectorStatusUpdater.CONNECTOR_STATE_FAILED;
+import static org.bf2.cos.fleetshard.sync.resources.ConnectorStatusUpdater.CONNECTOR_STATE_READY;
+
+public class ConnectorStateMetricsTest {
+    private static final String STATE = "state";
+    private static final String COUNT = "count";
+
+    @Test
+    void gaugeIsRegisteredOnce() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ConnectorStateMetrics metrics = new ConnectorStateMetrics(registry, STATE, COUNT, false, 10);
+
+        metrics.record("d1", () -> tags("d1"), 1L, "ready", CONNECTOR_STATE_READY, false);
+        metrics.record("d1", () -> tags("d1"), 2L, "failed", CONNECTOR_STATE_FAILED, true);
+
+        assertThat(registry.find(STATE).gauges()).hasSize(1);
+        assertThat(registry.get(STATE).gauge().value()).isEqualTo(CONNECTOR_STATE_FAILED);
+        assertThat(registry.get(COUNT).tag(ConnectorStateMetrics.TAG_CONNECTOR_STATE, "ready").counter().count())
+            .isEqualTo(1);
+        assertThat(registry.get(COUNT).tag(ConnectorStateMetrics.TAG_CONNECTOR_STATE, "failed_but_ready").counter())
+            .satisfies(counter -> assertThat(counter.count()).isEqualTo(1));
+        assertThat(registry.find(COUNT).tagKeys(ConnectorStateMetrics.TAG_CONNECTOR_RESOURCE_VERSION).counters())
+            .isEmpty();
+
+        metrics.remove("d1");
+
+        assertThat(registry.getMeters()).isEmpty();
+        assertThat(metrics.size()).isZero();
+    }
+
+    @Test
+    void onlyLatestResourceVersionIsRetained() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ConnectorStateMetrics metrics = new ConnectorStateMetrics(registry, STATE, COUNT, true, 10);
+
+        metrics.record("d1", () -> tags("d1"), 1L, "ready", CONNECTOR_STATE_READY, false);
+        metrics.record("d1", () -> tags("d1"), 2L, "ready", CONNECTOR_STATE_READY, false);
+
+        assertThat(registry.find(COUNT).counters()).singleElement().satisfies(counter -> {
+            assertThat(counter.getId().getTag(ConnectorStateMetrics.TAG_CONNECTOR_RESOURCE_VERSION)).isEqualTo("2");
+        });
+    }
+
+    @Test
+    void cardinalityIsCapped() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ConnectorStateMetrics metrics = new ConnectorStateMetrics(registry, STATE, COUNT, false, 1);
+
+        assertThat(metrics.record("d1", () -> tags("d1"), 1L, "ready", CONNECTOR_STATE_READY, false)).isTrue();
+        assertThat(metrics.record("d2", () -> tags("d2"), 1L, "ready", CONNECTOR_STATE_READY, false)).isFalse();
+        assertThat(metrics.record("d1", () -> tags("d1"), 1L, "ready", CONNECTOR_STATE_READY, false)).isTrue();
+
+        assertThat(registry.find(STATE).gauges()).hasSize(1);
+    }
+
+    private static List<Tag> tags(String deploymentId) {
+        return List.of(Tag.of("cos.deployment.id", deploymentId));
+    }
+}
@@ -0,0 +1,61 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DebounceQueueTest {
+
+    @Test
+    void keysAreCoalesced() throws Exception {
+        final DebounceQueue<String> queue = new DebounceQueue<>(Duration.ofMillis(50));
+
+        queue.add("c1");
+        queue.add("c2");
+        queue.add("c1");
+
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(queue.poll(Duration.ofSeconds(5))).containsExactly("c1", "c2");
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void keysAreDebounced() throws Exception {
+        final DebounceQueue<String> queue = new DebounceQueue<>(Duration.ofSeconds(10));
+
+        queue.add("c1");
+
+        assertThat(queue.poll(Duration.ofMillis(50))).isEmpty();
+        assertThat(queue.size()).isEqualTo(1);
+
+        queue.remove("c1");
+
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void consumerIsWokenUp() throws Exception {
+        final DebounceQueue<String> queue = new DebounceQueue<>(Duration.ZERO);
+
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            queue.add("c1");
+        });
+
+        producer.start();
+
+        try {
+            List<String> keys = queue.poll(Duration.ofSeconds(10));
+            assertThat(keys).containsExactly("c1");
+        } finally {
+            producer.join();
+        }
+    }
+}
@@ -1,8 +1,13 @@
 package org.bf2.cos.fleetshard.sync.resources;
 
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.bf2.cos.fleet.manager.model.ConnectorNamespaceDeployment;
 import org.bf2.cos.fleet.manager.model.ConnectorNamespaceState;
@@ -12,18 +17,26 @@ import org.bf2.cos.fleet.manager.model.ConnectorNamespaceTenantKind;
 import org.bf2.cos.fleetshard.api.ManagedConnector;
 import org.bf2.cos.fleetshard.support.client.EventClient;
 import org.bf2.cos.fleetshard.support.metrics.MetricsRecorder;
+import org.bf2.cos.fleetshard.support.resources.NamespacedName;
+import org.bf2.cos.fleetshard.sync.client.FleetShardClient;
 import org.bf2.cos.fleetshard.sync.connector.ConnectorTestSupport;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import io.fabric8.kubernetes.api.model.Namespace;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
 import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.bf2.cos.fleetshard.support.resources.Resources.LABEL_KUBERNETES_NAME;
+import static org.bf2.cos.fleetshard.support.resources.Resources.LABEL_UOW;
 import static org.bf2.cos.fleetshard.support.resources.Resources.uid;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class NamespaceProvisionerTest {
     private static final String CLUSTER_ID = UUID.randomUUID().toString();
@@ -55,6 +68,7 @@ public class NamespaceProvisionerTest {
         provisioner.fleetShard = ConnectorTestSupport.fleetShard(CLUSTER_ID, connectors, secrets);
         provisioner.fleetManager = ConnectorTestSupport.fleetManagerClient();
         provisioner.eventClient = Mockito.mock(EventClient.class);
+        provisioner.shards = ConnectorTestSupport.shards();
         provisioner.recorder = Mockito.mock(MetricsRecorder.class);
 
         final ArgumentCaptor<Namespace> nc = ArgumentCaptor.forClass(Namespace.class);
@@ -75,4 +89,102 @@ public class NamespaceProvisionerTest {
 
         });
     }
+
+    @Test
+    void unchangedNamespaceIsNotRewritten() {
+        final ConnectorNamespaceDeployment namespace = new ConnectorNamespaceDeployment();
+
+        namespace.id(uid());
+        namespace.name("ns");
+        namespace.resourceVersion(1L);
+        namespace.setStatus(new ConnectorNamespaceStatus().state(ConnectorNamespaceState.READY).connectorsDeployed(0));
+        namespace.setTenant(new ConnectorNamespaceTenant().id(uid()).kind(ConnectorNamespaceTenantKind.ORGANISATION));
+
+        final ConnectorNamespaceProvisioner provisioner = new ConnectorNamespaceProvisioner();
+        provisioner.config = ConnectorTestSupport.config();
+        provisioner.fleetShard = ConnectorTestSupport.fleetShard(CLUSTER_ID, List.of(), List.of());
+        provisioner.fleetManager = ConnectorTestSupport.fleetManagerClient();
+        provisioner.eventClient = Mockito.mock(EventClient.class);
+        provisioner.shards = ConnectorTestSupport.shards();
+        provisioner.recorder = Mockito.mock(MetricsRecorder.class);
+
+        final Map<String, Namespace> namespaces = new HashMap<>();
+        final Map<String, Secret> secrets = new HashMap<>();
+        final AtomicInteger writes = new AtomicInteger();
+
+        stubCluster(provisioner.fleetShard, namespaces, secrets, writes);
+
+        //
+        // When the namespace is provisioned twice out of the same revision
+        //
+        provisioner.provision(namespace);
+
+        assertThat(writes).hasValue(2);
+        assertThat(namespaces).hasSize(1);
+        assertThat(secrets).hasSize(1);
+
+        final String uow = namespaces.values().iterator().next().getMetadata().getLabels().get(LABEL_UOW);
+
+        provisioner.provision(namespace);
+
+        //
+        // Then neither the namespace nor the pull secret are written again
+        //
+        assertThat(writes).hasValue(2);
+        assertThat(namespaces.values())
+            .allSatisfy(ns -> assertThat(ns.getMetadata().getLabels()).containsEntry(LABEL_UOW, uow));
+        assertThat(secrets.values()).allSatisfy(s -> assertThat(s.getMetadata().getLabels()).containsEntry(LABEL_UOW, uow));
+
+        //
+        // While a new revision gets a new unit of work
+        //
+        namespace.resourceVersion(2L);
+        provisioner.provision(namespace);
+
+        assertThat(writes).hasValue(4);
+        assertThat(namespaces.values())
+            .allSatisfy(ns -> assertThat(ns.getMetadata().getLabels()).doesNotContainEntry(LABEL_UOW, uow));
+    }
+
+    /**
+     * Back the namespaces and the secrets with maps, counting only the writes that would change them like the client
+     * does.
+     */
+    private static void stubCluster(
+        FleetShardClient fleetShard,
+        Map<String, Namespace> namespaces,
+        Map<String, Secret> secrets,
+        AtomicInteger writes) {
+
+        when(fleetShard.generateNamespaceId(anyString()))
+            .thenAnswer(invocation -> "mctr-" + invocation.getArgument(0));
+        when(fleetShard.getCachedNamespace(anyString()))
+            .thenAnswer(invocation -> Optional.ofNullable(namespaces.get(invocation.getArgument(0, String.class))));
+        when(fleetShard.getSecret(any(NamespacedName.class)))
+            .thenAnswer(invocation -> Optional.of(new SecretBuilder()
+                .withMetadata(new ObjectMetaBuilder()
+                    .withNamespace(invocation.getArgument(0, NamespacedName.class).getNamespace())
+                    .withName(invocation.getArgument(0, NamespacedName.class).getName())
+                    .build())
+                .withType("kubernetes.io/dockerconfigjson")
+                .addToData(".dockerconfigjson", "e30=")
+                .build()));
+        when(fleetShard.createNamespace(any(Namespace.class)))
+            .thenAnswer(invocation -> {
+                Namespace arg = invocation.getArgument(0, Namespace.class);
+                if (!Objects.equals(arg, namespaces.put(arg.getMetadata().getName(), arg))) {
+                    writes.incrementAndGet();
+                }
+                return arg;
+            });
+        when(fleetShard.createSecret(any(Secret.class)))
+            .thenAnswer(invocation -> {
+                Secret arg = invocation.getArgument(0, Secret.class);
+                String key = arg.getMetadata().getNamespace() + "/" + arg.getMetadata().getName();
+                if (!Objects.equals(arg, secrets.put(key, arg))) {
+                    writes.incrementAndGet();
+                }
+                return arg;
+            });
+    }
 }
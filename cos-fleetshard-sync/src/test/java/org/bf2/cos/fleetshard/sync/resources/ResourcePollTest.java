@@ -0,0 +1,134 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.bf2.cos.fleetshard.support.metrics.StaticMetricsRecorder;
+import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
+import org.bf2.cos.fleetshard.sync.FleetShardSyncScheduler;
+import org.bf2.cos.fleetshard.sync.client.FleetManagerClient;
+import org.bf2.cos.fleetshard.sync.client.FleetShardClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ResourcePollTest {
+    private static final long DEPLOYMENTS_REVISION = 7;
+    private static final long NAMESPACES_REVISION = 5;
+
+    private ResourcePoll poll;
+
+    @BeforeEach
+    void setUp() {
+        FleetShardSyncConfig config = Mockito.mock(FleetShardSyncConfig.class);
+        FleetShardSyncConfig.Resources resources = Mockito.mock(FleetShardSyncConfig.Resources.class);
+        FleetShardSyncConfig.AdaptivePoll adaptive = Mockito.mock(FleetShardSyncConfig.AdaptivePoll.class);
+
+        when(config.resources()).thenReturn(resources);
+        when(resources.pollInterval()).thenReturn(Duration.ofSeconds(15));
+        when(resources.resyncInterval()).thenReturn(Duration.ofHours(1));
+        when(resources.adaptivePoll()).thenReturn(adaptive);
+        when(adaptive.enabled()).thenReturn(false);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        poll = new ResourcePoll();
+        poll.config = config;
+        poll.registry = registry;
+        poll.scheduler = Mockito.mock(FleetShardSyncScheduler.class);
+        poll.connectorClient = Mockito.mock(FleetShardClient.class);
+        poll.fleetManager = Mockito.mock(FleetManagerClient.class);
+        poll.connectorsProvisioner = Mockito.mock(ConnectorDeploymentProvisioner.class);
+        poll.namespaceProvisioner = Mockito.mock(ConnectorNamespaceProvisioner.class);
+        poll.connectorsWatch = Mockito.mock(ConnectorDeploymentWatch.class);
+        poll.namespacesWatch = Mockito.mock(ConnectorNamespaceWatch.class);
+        poll.syncRecorder = StaticMetricsRecorder.of(registry, "sync");
+        poll.pollRecorder = StaticMetricsRecorder.of(registry, "poll");
+
+        when(poll.connectorClient.getMaxDeploymentResourceRevision()).thenReturn(DEPLOYMENTS_REVISION);
+        when(poll.connectorClient.getMaxNamespaceResourceRevision()).thenReturn(NAMESPACES_REVISION);
+    }
+
+    @Test
+    void restartWithCheckpointResumesIncrementalPolling() throws Exception {
+        Instant lastResync = Instant.now().minus(Duration.ofMinutes(10));
+        when(poll.connectorClient.getCheckpointedResync()).thenReturn(Optional.of(lastResync));
+
+        poll.start();
+        poll.run();
+
+        verify(poll.namespaceProvisioner).poll(NAMESPACES_REVISION);
+        verify(poll.connectorsProvisioner).poll(DEPLOYMENTS_REVISION);
+        verify(poll.namespaceProvisioner, never()).poll(0);
+        verify(poll.connectorsProvisioner, never()).poll(0);
+        verify(poll.connectorClient).releaseCheckpoint();
+
+        // the next resync is still due relative to the checkpointed one
+        verify(poll.connectorClient).updateCheckpoint(lastResync);
+    }
+
+    @Test
+    void restartWithExpiredCheckpointResyncs() throws Exception {
+        Instant lastResync = Instant.now().minus(Duration.ofHours(2));
+        when(poll.connectorClient.getCheckpointedResync()).thenReturn(Optional.of(lastResync));
+
+        poll.start();
+        poll.run();
+
+        verify(poll.connectorClient).clearDeploymentFailures();
+        verify(poll.namespaceProvisioner).poll(0);
+        verify(poll.connectorsProvisioner).poll(0);
+
+        ArgumentCaptor<Instant> checkpoint = ArgumentCaptor.forClass(Instant.class);
+        verify(poll.connectorClient).updateCheckpoint(checkpoint.capture());
+
+        assertThat(checkpoint.getValue()).isAfter(lastResync.plus(Duration.ofHours(1)));
+    }
+
+    @Test
+    void restartWithoutCheckpointResyncs() throws Exception {
+        when(poll.connectorClient.getCheckpointedResync()).thenReturn(Optional.empty());
+
+        poll.start();
+        poll.run();
+
+        verify(poll.namespaceProvisioner).poll(0);
+        verify(poll.connectorsProvisioner).poll(0);
+        verify(poll.connectorsProvisioner, never()).poll(DEPLOYMENTS_REVISION);
+        verify(poll.connectorClient).updateCheckpoint(any(Instant.class));
+        verify(poll.scheduler).schedule(any(), any(), any());
+
+        // the following run is incremental
+        poll.run();
+
+        verify(poll.connectorsProvisioner).poll(DEPLOYMENTS_REVISION);
+        verify(poll.connectorsProvisioner, Mockito.times(2)).poll(anyLong());
+    }
+
+    @Test
+    void namespacesArePolledWhenTheirWatchIsNotConnected() throws Exception {
+        Instant lastResync = Instant.now().minus(Duration.ofMinutes(10));
+        when(poll.connectorClient.getCheckpointedResync()).thenReturn(Optional.of(lastResync));
+
+        // the namespaces watch is off by default, so only the deployments are streamed
+        when(poll.connectorsWatch.isConnected()).thenReturn(true);
+        when(poll.namespacesWatch.isConnected()).thenReturn(false);
+
+        poll.start();
+        poll.run();
+
+        verify(poll.namespaceProvisioner).poll(NAMESPACES_REVISION);
+        verify(poll.connectorsProvisioner, never()).poll(anyLong());
+    }
+}
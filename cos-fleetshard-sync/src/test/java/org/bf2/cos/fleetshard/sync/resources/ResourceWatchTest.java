@@ -0,0 +1,213 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
+import org.bf2.cos.fleetshard.sync.client.FleetManagerClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ResourceWatchTest {
+    private FleetShardSyncConfig.Watch watchConfig;
+    private TestWatch watch;
+
+    @BeforeEach
+    void setUp() {
+        FleetShardSyncConfig config = Mockito.mock(FleetShardSyncConfig.class);
+        FleetShardSyncConfig.Resources resources = Mockito.mock(FleetShardSyncConfig.Resources.class);
+        FleetShardSyncConfig.Metrics metrics = Mockito.mock(FleetShardSyncConfig.Metrics.class);
+
+        watchConfig = Mockito.mock(FleetShardSyncConfig.Watch.class);
+
+        when(config.resources()).thenReturn(resources);
+        when(config.metrics()).thenReturn(metrics);
+        when(metrics.baseName()).thenReturn("base");
+        when(resources.watch()).thenReturn(watchConfig);
+        when(watchConfig.enabled()).thenReturn(true);
+        when(watchConfig.reconnectDelay()).thenReturn(Duration.ofMillis(10));
+        when(watchConfig.maxReconnectDelay()).thenReturn(Duration.ofMillis(50));
+
+        watch = new TestWatch();
+        watch.config = config;
+        watch.registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        watch.stop();
+    }
+
+    @Test
+    void connectedOnlyOnceTheStreamIsEstablished() throws Exception {
+        CountDownLatch respond = new CountDownLatch(1);
+        CountDownLatch close = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+
+        watch.stream = (onConnected, consumer) -> {
+            await(respond);
+            onConnected.run();
+            await(close);
+            closed.countDown();
+        };
+
+        watch.start();
+
+        // the connection attempt is pending
+        assertThat(watch.revisions.poll(5, TimeUnit.SECONDS)).isZero();
+        assertThat(watch.isConnected()).isFalse();
+
+        respond.countDown();
+        assertThat(waitFor(() -> watch.isConnected())).isTrue();
+
+        close.countDown();
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(waitFor(() -> !watch.isConnected())).isTrue();
+    }
+
+    @Test
+    void failedConnectionsAreNotConnected() throws Exception {
+        watch.stream = (onConnected, consumer) -> {
+            throw new IllegalStateException("refused");
+        };
+
+        watch.start();
+
+        assertThat(watch.revisions.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(watch.revisions.poll(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(watch.isConnected()).isFalse();
+    }
+
+    @Test
+    void reconnectsFromTheHighestRevision() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        watch.maxRevision = 2;
+        watch.stream = (onConnected, consumer) -> {
+            onConnected.run();
+
+            if (calls.incrementAndGet() == 1) {
+                consumer.accept(3L);
+                consumer.accept(5L);
+            }
+        };
+
+        watch.start();
+
+        assertThat(watch.revisions.poll(5, TimeUnit.SECONDS)).isEqualTo(2);
+        assertThat(watch.revisions.poll(5, TimeUnit.SECONDS)).isEqualTo(5);
+        assertThat(watch.provisioned).startsWith(3L, 5L);
+    }
+
+    @Test
+    void disabledWatchIsNotStarted() throws Exception {
+        when(watchConfig.enabled()).thenReturn(false);
+
+        watch.stream = (onConnected, consumer) -> onConnected.run();
+        watch.start();
+
+        assertThat(watch.revisions.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        assertThat(watch.isConnected()).isFalse();
+    }
+
+    @Test
+    void namespacesWatchFallsBackToPollingUnlessEnabled() throws Exception {
+        ConnectorNamespaceWatch namespaces = new ConnectorNamespaceWatch();
+        namespaces.config = watch.config;
+        namespaces.registry = watch.registry;
+        namespaces.fleetManager = Mockito.mock(FleetManagerClient.class);
+
+        when(watchConfig.namespaces()).thenReturn(false);
+
+        namespaces.start();
+
+        try {
+            verify(namespaces.fleetManager, after(200).never()).watchNamespaces(anyLong(), any(), any());
+            assertThat(namespaces.isConnected()).isFalse();
+        } finally {
+            namespaces.stop();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+
+            Thread.sleep(10);
+        }
+
+        return false;
+    }
+
+    interface Stream {
+        void open(Runnable onConnected, Consumer<Long> consumer);
+    }
+
+    static class TestWatch extends ResourceWatch<Long> {
+        final BlockingQueue<Long> revisions = new LinkedBlockingQueue<>();
+        final List<Long> provisioned = new CopyOnWriteArrayList<>();
+
+        volatile long maxRevision;
+        volatile Stream stream;
+
+        TestWatch() {
+            super("test");
+        }
+
+        @Override
+        protected long getMaxResourceRevision() {
+            return maxRevision;
+        }
+
+        @Override
+        protected void watch(long revision, Runnable onConnected, Consumer<Long> consumer) {
+            revisions.add(revision);
+            stream.open(onConnected, consumer);
+        }
+
+        @Override
+        protected void provision(Long resource) {
+            provisioned.add(resource);
+        }
+
+        @Override
+        protected long getResourceRevision(Long resource) {
+            return resource;
+        }
+
+        @Override
+        protected OffsetDateTime getResourceTimestamp(Long resource) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StatusBatchTest {
+
+    @Test
+    void flushOnSize() {
+        final List<List<String>> batches = new ArrayList<>();
+        final StatusBatch<String> batch = new StatusBatch<>(2, Duration.ofMinutes(1), () -> true, batches::add);
+        final Instant now = Instant.now();
+
+        batch.add("d1", "s1", now);
+        batch.add("d1", "s2", now);
+        assertThat(batches).isEmpty();
+        assertThat(batch.size()).isEqualTo(1);
+
+        batch.add("d2", "s3", now);
+        assertThat(batches).containsExactly(List.of("s2", "s3"));
+        assertThat(batch.size()).isZero();
+    }
+
+    @Test
+    void flushOnDelay() {
+        final List<List<String>> batches = new ArrayList<>();
+        final StatusBatch<String> batch = new StatusBatch<>(10, Duration.ofSeconds(1), () -> true, batches::add);
+        final Instant now = Instant.now();
+
+        batch.add("d1", "s1", now);
+        batch.add("d2", "s2", now.plusMillis(500));
+        assertThat(batches).isEmpty();
+
+        batch.add("d3", "s3", now.plusSeconds(1));
+        assertThat(batches).containsExactly(List.of("s1", "s2", "s3"));
+    }
+
+    @Test
+    void flushAndRemove() {
+        final List<List<String>> batches = new ArrayList<>();
+        final StatusBatch<String> batch = new StatusBatch<>(10, Duration.ofMinutes(1), () -> true, batches::add);
+        final Instant now = Instant.now();
+
+        batch.flush();
+        assertThat(batches).isEmpty();
+
+        batch.add("d1", "s1", now);
+        batch.add("d2", "s2", now);
+        batch.remove("d1");
+        batch.flush();
+
+        assertThat(batches).containsExactly(List.of("s2"));
+    }
+
+    @Test
+    void holdWhileNotReady() {
+        final List<List<String>> batches = new ArrayList<>();
+        final AtomicBoolean ready = new AtomicBoolean(false);
+        final StatusBatch<String> batch = new StatusBatch<>(1, Duration.ofMinutes(1), ready::get, batches::add);
+        final Instant now = Instant.now();
+
+        batch.add("d1", "s1", now);
+        batch.add("d2", "s2", now);
+        batch.flush();
+
+        assertThat(batches).isEmpty();
+        assertThat(batch.size()).isEqualTo(2);
+
+        ready.set(true);
+        batch.flush();
+
+        assertThat(batches).containsExactly(List.of("s1", "s2"));
+    }
+
+    @Test
+    void flushOnDelayWithoutFurtherUpdates() throws Exception {
+        final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+        try {
+            final BlockingQueue<List<String>> batches = new LinkedBlockingQueue<>();
+            final StatusBatch<String> batch = new StatusBatch<>(
+                10, Duration.ofMillis(50), () -> true, batches::add, timer);
+
+            batch.add("d1", "s1", Instant.now());
+            batch.add("d2", "s2", Instant.now());
+
+            assertThat(batches.poll(5, TimeUnit.SECONDS)).containsExactly("s1", "s2");
+            assertThat(batch.size()).isZero();
+
+            // the timer is re-armed by the next update
+            batch.add("d3", "s3", Instant.now());
+
+            assertThat(batches.poll(5, TimeUnit.SECONDS)).containsExactly("s3");
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+
+    @Test
+    void delayedFlushIsRetriedWhileNotReady() throws Exception {
+        final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+        try {
+            final BlockingQueue<List<String>> batches = new LinkedBlockingQueue<>();
+            final AtomicBoolean ready = new AtomicBoolean(false);
+            final StatusBatch<String> batch = new StatusBatch<>(
+                10, Duration.ofMillis(50), ready::get, batches::add, timer);
+
+            batch.add("d1", "s1", Instant.now());
+
+            assertThat(batches.poll(200, TimeUnit.MILLISECONDS)).isNull();
+            assertThat(batch.size()).isEqualTo(1);
+
+            ready.set(true);
+
+            assertThat(batches.poll(5, TimeUnit.SECONDS)).containsExactly("s1");
+        } finally {
+            timer.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.bf2.cos.fleetshard.sync.resources;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.bf2.cos.fleet.manager.model.ConnectorDeploymentStatus;
+import org.bf2.cos.fleet.manager.model.ConnectorState;
+import org.bf2.cos.fleet.manager.model.MetaV1Condition;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StatusReportsTest {
+
+    @Test
+    void fingerprintFollowsStatus() {
+        ConnectorDeploymentStatus s1 = status(ConnectorState.READY, 1L);
+        ConnectorDeploymentStatus s2 = status(ConnectorState.READY, 1L);
+        ConnectorDeploymentStatus s3 = status(ConnectorState.FAILED, 1L);
+        ConnectorDeploymentStatus s4 = status(ConnectorState.READY, 2L);
+
+        assertThat(StatusReports.fingerprint(s1)).isEqualTo(StatusReports.fingerprint(s2));
+        assertThat(StatusReports.fingerprint(s1)).isNotEqualTo(StatusReports.fingerprint(s3));
+        assertThat(StatusReports.fingerprint(s1)).isNotEqualTo(StatusReports.fingerprint(s4));
+    }
+
+    @Test
+    void fingerprintIgnoresTransitionTimes() {
+        ConnectorDeploymentStatus s1 = status(ConnectorState.FAILED, 1L)
+            .addConditionsItem(condition("NoAssignableOperator", "2022-10-01T10:00:00Z"));
+        ConnectorDeploymentStatus s2 = status(ConnectorState.FAILED, 1L)
+            .addConditionsItem(condition("NoAssignableOperator", "2022-10-01T10:00:05Z"));
+        ConnectorDeploymentStatus s3 = status(ConnectorState.FAILED, 1L)
+            .addConditionsItem(condition("FailedToCreateOrUpdateResource", "2022-10-01T10:00:05Z"));
+
+        assertThat(StatusReports.fingerprint(s1)).isEqualTo(StatusReports.fingerprint(s2));
+        assertThat(StatusReports.fingerprint(s1)).isNotEqualTo(StatusReports.fingerprint(s3));
+    }
+
+    @Test
+    void onlyChangesAndHeartbeatsAreDue() {
+        final StatusReports reports = new StatusReports();
+        final Duration staleness = Duration.ofMinutes(5);
+        final Instant now = Instant.now();
+
+        assertThat(reports.isDue("d1", 1L, now, staleness)).isTrue();
+
+        reports.reported("d1", 1L, now);
+
+        assertThat(reports.isDue("d1", 1L, now.plusSeconds(10), staleness)).isFalse();
+        assertThat(reports.isDue("d1", 2L, now.plusSeconds(10), staleness)).isTrue();
+        assertThat(reports.isDue("d1", 1L, now.plus(staleness), staleness)).isTrue();
+        assertThat(reports.isDue("d1", 1L, now, Duration.ZERO)).isTrue();
+
+        reports.remove("d1");
+
+        assertThat(reports.size()).isZero();
+        assertThat(reports.isDue("d1", 1L, now, staleness)).isTrue();
+    }
+
+    private static MetaV1Condition condition(String reason, String lastTransitionTime) {
+        return new MetaV1Condition().type("Ready").status("False").reason(reason).lastTransitionTime(lastTransitionTime);
+    }
+
+    private static ConnectorDeploymentStatus status(ConnectorState phase, long resourceVersion) {
+        return new ConnectorDeploymentStatus().phase(phase).resourceVersion(resourceVersion);
+    }
+}
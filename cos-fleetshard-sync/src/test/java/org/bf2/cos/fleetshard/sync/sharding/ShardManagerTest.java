@@ -0,0 +1,174 @@
+package org.bf2.cos.fleetshard.sync.sharding;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bf2.cos.fleetshard.sync.FleetShardSyncConfig;
+import org.bf2.cos.fleetshard.sync.FleetShardSyncScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseBuilder;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseList;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+
+public class ShardManagerTest {
+    private static final int BUCKETS = 16;
+
+    private final List<Lease> leases = new ArrayList<>();
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    private FleetShardSyncConfig.Sharding sharding;
+    private ShardManager manager;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        FleetShardSyncConfig config = Mockito.mock(FleetShardSyncConfig.class);
+        FleetShardSyncConfig.Metrics metrics = Mockito.mock(FleetShardSyncConfig.Metrics.class);
+        FleetShardSyncConfig.Cluster cluster = Mockito.mock(FleetShardSyncConfig.Cluster.class);
+
+        sharding = Mockito.mock(FleetShardSyncConfig.Sharding.class);
+
+        when(config.namespace()).thenReturn("cos");
+        when(config.metrics()).thenReturn(metrics);
+        when(metrics.baseName()).thenReturn("base");
+        when(config.cluster()).thenReturn(cluster);
+        when(cluster.id()).thenReturn("cluster-1");
+        when(config.sharding()).thenReturn(sharding);
+        when(sharding.enabled()).thenReturn(true);
+        when(sharding.memberId()).thenReturn(Optional.of("sync-a"));
+        when(sharding.buckets()).thenReturn(BUCKETS);
+        when(sharding.leaseDuration()).thenReturn(Duration.ofSeconds(15));
+        when(sharding.renewInterval()).thenReturn(Duration.ofSeconds(5));
+
+        KubernetesClient client = Mockito.mock(KubernetesClient.class);
+        MixedOperation<Lease, KubernetesResourceList<Lease>, Resource<Lease>> operation = Mockito
+            .mock(MixedOperation.class);
+        NonNamespaceOperation<Lease, KubernetesResourceList<Lease>, Resource<Lease>> namespaced = Mockito
+            .mock(NonNamespaceOperation.class);
+        FilterWatchListDeletable<Lease, KubernetesResourceList<Lease>> filtered = Mockito
+            .mock(FilterWatchListDeletable.class);
+        Resource<Lease> resource = Mockito.mock(Resource.class);
+
+        doReturn(operation).when(client).resources(Lease.class);
+        when(operation.inNamespace(anyString())).thenReturn(namespaced);
+        when(namespaced.withName(anyString())).thenReturn(resource);
+        when(namespaced.withLabel(anyString(), anyString())).thenReturn(filtered);
+        when(filtered.withLabel(anyString(), anyString())).thenReturn(filtered);
+        when(filtered.list()).thenAnswer(i -> new LeaseList("v1", new ArrayList<>(leases), "LeaseList", null));
+        when(resource.createOrReplace(any(Lease.class))).thenAnswer(i -> {
+            if (failing.get()) {
+                throw new KubernetesClientException("unavailable");
+            }
+
+            Lease lease = i.getArgument(0);
+            leases.removeIf(l -> l.getMetadata().getName().equals(lease.getMetadata().getName()));
+            leases.add(lease);
+
+            return lease;
+        });
+
+        manager = new ShardManager();
+        manager.config = config;
+        manager.kubernetesClient = client;
+        manager.scheduler = Mockito.mock(FleetShardSyncScheduler.class);
+        manager.registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void aSingleMemberOwnsEverything() throws Exception {
+        AtomicInteger rebalances = new AtomicInteger();
+        manager.onRebalance(rebalances::incrementAndGet);
+
+        manager.start();
+
+        assertThat(leases).hasSize(1);
+        assertThat(leases.get(0).getSpec().getHolderIdentity()).isEqualTo("sync-a");
+        assertThat(manager.getOwnedShards()).hasSize(BUCKETS);
+        assertThat(manager.isCoordinator()).isTrue();
+        assertThat(manager.owns("ns-1")).isTrue();
+        assertThat(rebalances).hasValue(1);
+
+        manager.renew();
+
+        assertThat(rebalances).hasValue(1);
+    }
+
+    @Test
+    void bucketsAreRebalancedWhenAMemberJoinsOrExpires() throws Exception {
+        AtomicInteger rebalances = new AtomicInteger();
+        manager.onRebalance(rebalances::incrementAndGet);
+
+        manager.start();
+
+        leases.add(lease("sync-b", Instant.now()));
+        manager.renew();
+
+        assertThat(rebalances).hasValue(2);
+        assertThat(manager.getOwnedShards())
+            .hasSize(Shards.assign("sync-a", List.of("sync-a", "sync-b"), BUCKETS).size())
+            .hasSizeLessThan(BUCKETS);
+        assertThat(manager.isCoordinator()).isTrue();
+
+        leases.removeIf(l -> "sync-b".equals(l.getSpec().getHolderIdentity()));
+        leases.add(lease("sync-b", Instant.now().minus(Duration.ofMinutes(1))));
+        manager.renew();
+
+        assertThat(rebalances).hasValue(3);
+        assertThat(manager.getOwnedShards()).hasSize(BUCKETS);
+    }
+
+    @Test
+    void bucketsAreReleasedWhenTheLeaseCannotBeRenewed() throws Exception {
+        manager.start();
+
+        failing.set(true);
+        manager.renew();
+
+        // still within the lease duration, the buckets are retained
+        assertThat(manager.getOwnedShards()).hasSize(BUCKETS);
+
+        when(sharding.leaseDuration()).thenReturn(Duration.ZERO);
+        manager.renew();
+
+        assertThat(manager.getOwnedShards()).isEmpty();
+        assertThat(manager.owns("ns-1")).isFalse();
+        assertThat(manager.isCoordinator()).isFalse();
+    }
+
+    private static Lease lease(String holder, Instant renewTime) {
+        return new LeaseBuilder()
+            .withNewMetadata()
+            .withName("cos-fleetshard-sync-" + holder)
+            .endMetadata()
+            .withNewSpec()
+            .withHolderIdentity(holder)
+            .withLeaseDurationSeconds(15)
+            .withRenewTime(ZonedDateTime.ofInstant(renewTime, ZoneOffset.UTC))
+            .endSpec()
+            .build();
+    }
+}
@@ -0,0 +1,72 @@
+package org.bf2.cos.fleetshard.sync.sharding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ShardsTest {
+    private static final int BUCKETS = 64;
+
+    @Test
+    void bucketsAreStable() {
+        for (int i = 0; i < 100; i++) {
+            String id = "ns-" + i;
+
+            assertThat(Shards.bucket(id, BUCKETS))
+                .isEqualTo(Shards.bucket(id, BUCKETS))
+                .isBetween(0, BUCKETS - 1);
+        }
+    }
+
+    @Test
+    void bucketsAreAssignedToExactlyOneMember() {
+        List<String> members = List.of("sync-a", "sync-b", "sync-c");
+        Set<Integer> assigned = new HashSet<>();
+
+        for (String member : members) {
+            Set<Integer> buckets = Shards.assign(member, members, BUCKETS);
+
+            assertThat(buckets).isNotEmpty();
+            assertThat(Collections.disjoint(buckets, assigned)).isTrue();
+            assigned.addAll(buckets);
+        }
+
+        assertThat(assigned).hasSize(BUCKETS);
+    }
+
+    @Test
+    void onlyTheBucketsOfALeavingMemberMove() {
+        List<String> members = new ArrayList<>(List.of("sync-a", "sync-b", "sync-c"));
+
+        Set<Integer> a = Shards.assign("sync-a", members, BUCKETS);
+        Set<Integer> b = Shards.assign("sync-b", members, BUCKETS);
+        Set<Integer> c = Shards.assign("sync-c", members, BUCKETS);
+
+        members.remove("sync-c");
+
+        Set<Integer> a2 = Shards.assign("sync-a", members, BUCKETS);
+        Set<Integer> b2 = Shards.assign("sync-b", members, BUCKETS);
+
+        assertThat(a2).containsAll(a);
+        assertThat(b2).containsAll(b);
+
+        Set<Integer> moved = new HashSet<>(a2);
+        moved.addAll(b2);
+        moved.removeAll(a);
+        moved.removeAll(b);
+
+        assertThat(moved).isEqualTo(c);
+    }
+
+    @Test
+    void nonMembersOwnNothing() {
+        assertThat(Shards.assign("sync-x", List.of("sync-a", "sync-b"), BUCKETS)).isEmpty();
+        assertThat(Shards.owner(0, List.of())).isNull();
+    }
+}